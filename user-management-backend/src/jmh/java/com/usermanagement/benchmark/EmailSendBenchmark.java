@@ -0,0 +1,122 @@
+package com.usermanagement.benchmark;
+
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetup;
+import com.usermanagement.config.SmtpTransportPool;
+import com.usermanagement.service.PrecompiledEmailTemplate;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import javax.mail.MessagingException;
+import javax.mail.internet.MimeMessage;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the original email path (Thymeleaf render plus {@code JavaMailSender.send}, which
+ * connects per message) with precompiled templates and the pooled transport, against an
+ * in-process GreenMail SMTP server.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmailSendBenchmark {
+
+    private static final int SMTP_PORT = 3025;
+    private static final String RECIPIENT = "jane.doe@example.com";
+    private static final String RESET_LINK = "http://localhost:3000/reset-password?token=3f0c9a52-5b7e-4d7a-9b1e-2a6c4f8e1d90";
+
+    private GreenMail greenMail;
+    private JavaMailSenderImpl mailSender;
+    private TemplateEngine templateEngine;
+    private PrecompiledEmailTemplate precompiledTemplate;
+    private SmtpTransportPool transportPool;
+
+    @Setup
+    public void setUp() {
+        greenMail = new GreenMail(new ServerSetup(SMTP_PORT, "localhost", ServerSetup.PROTOCOL_SMTP));
+        greenMail.start();
+
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(SMTP_PORT);
+
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        templateEngine = new TemplateEngine();
+        templateEngine.setTemplateResolver(resolver);
+
+        precompiledTemplate = PrecompiledEmailTemplate.compile(templateEngine, "password-reset-template", Set.of("resetLink"));
+        transportPool = new SmtpTransportPool(mailSender, 4, Duration.ofMinutes(1), 1000, Duration.ofSeconds(30),
+                new SimpleMeterRegistry());
+    }
+
+    @TearDown(Level.Iteration)
+    public void purgeMailboxes() throws Exception {
+        greenMail.purgeEmailFromAllMailboxes();
+    }
+
+    @TearDown
+    public void tearDown() {
+        transportPool.shutdown();
+        greenMail.stop();
+    }
+
+    @Benchmark
+    public String renderWithTemplateEngine() {
+        Context context = new Context();
+        context.setVariable("resetLink", RESET_LINK);
+        return templateEngine.process("password-reset-template", context);
+    }
+
+    @Benchmark
+    public String renderPrecompiled() {
+        return precompiledTemplate.render(Map.of("resetLink", RESET_LINK));
+    }
+
+    @Benchmark
+    public void sendWithConnectionPerMessage() throws MessagingException {
+        mailSender.send(message(renderWithTemplateEngine()));
+    }
+
+    @Benchmark
+    public void sendPooled() throws MessagingException {
+        transportPool.send(message(renderPrecompiled()));
+    }
+
+    private MimeMessage message(String html) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, StandardCharsets.UTF_8.name());
+        helper.setFrom("noreply@localhost");
+        helper.setTo(RECIPIENT);
+        helper.setSubject("Password Reset Request");
+        helper.setText(html, true);
+        return message;
+    }
+}
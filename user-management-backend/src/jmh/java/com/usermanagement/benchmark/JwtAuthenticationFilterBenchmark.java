@@ -0,0 +1,94 @@
+package com.usermanagement.benchmark;
+
+import com.usermanagement.config.AuthenticatedUser;
+import com.usermanagement.config.JwtAuthenticationFilter;
+import com.usermanagement.config.VerifiedTokenCache;
+import com.usermanagement.entity.Role;
+import com.usermanagement.entity.User;
+import com.usermanagement.repository.UserRepository;
+import com.usermanagement.service.JwtService;
+import com.usermanagement.service.TokenRevocationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import javax.servlet.FilterChain;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One full pass of {@link JwtAuthenticationFilter} for a valid bearer token, with the user
+ * lookup stubbed out so only token handling and principal construction are measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    @Param({"claims", "database"})
+    private String principalSource;
+
+    // 0 disables the verified-token cache, so every pass verifies the signature
+    @Param({"0", "10000"})
+    private long tokenCacheSize;
+
+    private JwtAuthenticationFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private FilterChain chain;
+
+    @Setup
+    public void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        JwtService jwtService = new JwtService("benchmark-secret", 3_600_000L, meterRegistry);
+
+        User user = new User();
+        user.setId(42L);
+        user.setEmail("benchmark.user@example.com");
+        user.setPassword("{noop}unused");
+        user.setRole(Role.ROLE_USER);
+
+        UserRepository userRepository = Mockito.mock(UserRepository.class);
+        Mockito.when(userRepository.findTokenVersionById(42L)).thenReturn(Optional.of(0));
+        UserDetailsService userDetailsService = username -> AuthenticatedUser.fromUser(user);
+
+        filter = new JwtAuthenticationFilter(
+                jwtService,
+                userDetailsService,
+                new VerifiedTokenCache(tokenCacheSize, Duration.ofMinutes(10), meterRegistry),
+                new TokenRevocationService(userRepository, 1000, Duration.ofMinutes(5), meterRegistry),
+                principalSource,
+                meterRegistry);
+
+        request = new MockHttpServletRequest("GET", "/api/users/profile");
+        request.addHeader("Authorization", "Bearer " + jwtService.generateToken(user));
+        response = new MockHttpServletResponse();
+        chain = (req, res) -> { };
+    }
+
+    @Benchmark
+    public Authentication filterPass() throws Exception {
+        SecurityContextHolder.clearContext();
+        filter.doFilter(request, response, chain);
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
@@ -0,0 +1,185 @@
+package com.usermanagement.benchmark;
+
+import com.usermanagement.entity.Role;
+import com.usermanagement.entity.User;
+import com.usermanagement.service.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the unified {@link JwtService} against the two token classes it replaced, which
+ * rebuilt the key on every call and parsed the token once per extracted claim. The replicas keep
+ * the old call pattern but run on the jjwt 0.11.5 in the build, not the 0.9.1 the originals
+ * shipped with, so their numbers are baselines for that pattern rather than for the old release.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtEngineBenchmark {
+
+    private JwtService engine;
+    private LegacyJwtUtil legacyJwtUtil;
+    private LegacyJwtService legacyJwtService;
+    private User user;
+    private String engineToken;
+    private String legacyUtilToken;
+    private String legacyServiceToken;
+
+    @Setup
+    public void setUp() {
+        byte[] secret = new byte[64];
+        new SecureRandom().nextBytes(secret);
+        String base64Secret = Base64.getEncoder().encodeToString(secret);
+
+        engine = new JwtService(base64Secret, 3_600_000L, new SimpleMeterRegistry());
+        legacyJwtUtil = new LegacyJwtUtil(base64Secret, 3_600L);
+        legacyJwtService = new LegacyJwtService(base64Secret, 3_600L);
+
+        user = new User();
+        user.setId(42L);
+        user.setEmail("benchmark.user@example.com");
+        user.setRole(Role.ROLE_USER);
+
+        engineToken = engine.generateToken(user);
+        legacyUtilToken = legacyJwtUtil.generateToken(user.getEmail(), user.getRole().name());
+        legacyServiceToken = legacyJwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public String engineSign() {
+        return engine.generateToken(user);
+    }
+
+    @Benchmark
+    public Claims engineVerify() {
+        return engine.parseToken(engineToken);
+    }
+
+    @Benchmark
+    public boolean engineValidate() {
+        return engine.validateToken(engineToken);
+    }
+
+    @Benchmark
+    public String engineExtractSubject() {
+        return engine.parseToken(engineToken).getSubject();
+    }
+
+    @Benchmark
+    public String legacyJwtUtilSign() {
+        return legacyJwtUtil.generateToken(user.getEmail(), user.getRole().name());
+    }
+
+    @Benchmark
+    public boolean legacyJwtUtilFilterPass() {
+        String username = legacyJwtUtil.extractUsername(legacyUtilToken);
+        return legacyJwtUtil.validateToken(legacyUtilToken, username);
+    }
+
+    @Benchmark
+    public String legacyJwtServiceSign() {
+        return legacyJwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public boolean legacyJwtServiceValidate() {
+        return legacyJwtService.validateToken(legacyServiceToken);
+    }
+
+    /** Replica of the former {@code config.JwtUtil}. */
+    static final class LegacyJwtUtil {
+        private final String secret;
+        private final long expiration;
+
+        LegacyJwtUtil(String secret, long expiration) {
+            this.secret = secret;
+            this.expiration = expiration;
+        }
+
+        // The String key overloads are deprecated in 0.11.5 but are what the original called
+        @SuppressWarnings("deprecation")
+        String generateToken(String subject, String role) {
+            Map<String, Object> claims = new HashMap<>();
+            claims.put("roles", role);
+            return Jwts.builder()
+                    .setClaims(claims)
+                    .setSubject(subject)
+                    .setIssuedAt(new Date(System.currentTimeMillis()))
+                    .setExpiration(new Date(System.currentTimeMillis() + expiration * 1000))
+                    .signWith(SignatureAlgorithm.HS512, secret)
+                    .compact();
+        }
+
+        boolean validateToken(String token, String expectedUsername) {
+            return extractUsername(token).equals(expectedUsername) && !extractExpiration(token).before(new Date());
+        }
+
+        String extractUsername(String token) {
+            return parse(token).getSubject();
+        }
+
+        Date extractExpiration(String token) {
+            return parse(token).getExpiration();
+        }
+
+        @SuppressWarnings("deprecation")
+        private Claims parse(String token) {
+            return Jwts.parser().setSigningKey(secret).parseClaimsJws(token).getBody();
+        }
+    }
+
+    /** Replica of the former {@code service.JwtService}. */
+    static final class LegacyJwtService {
+        private final String secret;
+        private final long expiration;
+
+        LegacyJwtService(String secret, long expiration) {
+            this.secret = secret;
+            this.expiration = expiration;
+        }
+
+        @SuppressWarnings("deprecation")
+        String generateToken(User user) {
+            Map<String, Object> claims = new HashMap<>();
+            claims.put("id", user.getId());
+            claims.put("role", user.getRole().name());
+            claims.put("email", user.getEmail());
+            return Jwts.builder()
+                    .setClaims(claims)
+                    .setSubject(user.getEmail())
+                    .setIssuedAt(new Date(System.currentTimeMillis()))
+                    .setExpiration(new Date(System.currentTimeMillis() + expiration * 1000))
+                    .signWith(SignatureAlgorithm.HS512, secret)
+                    .compact();
+        }
+
+        @SuppressWarnings("deprecation")
+        boolean validateToken(String token) {
+            Jwts.parser().setSigningKey(secret).parseClaimsJws(token);
+            return !Jwts.parser().setSigningKey(secret).parseClaimsJws(token).getBody()
+                    .getExpiration().before(new Date());
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.usermanagement.benchmark;
+
+import com.usermanagement.config.RateLimiter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead of one rate limit check: a single hot key contended by all threads (CAS retries), and
+ * keys spread over a large client population (cache lookups and inserts up to the key bound).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class RateLimiterBenchmark {
+
+    private static final int CLIENTS = 200_000;
+
+    private RateLimiter hotKeyLimiter;
+    private RateLimiter spreadLimiter;
+    private String[] clientKeys;
+
+    @Setup
+    public void setUp() {
+        // Limits high enough that the allowed path, the common case, is what gets measured
+        hotKeyLimiter = new RateLimiter(Integer.MAX_VALUE, Duration.ofSeconds(1), 100_000);
+        spreadLimiter = new RateLimiter(30, Duration.ofMinutes(1), 100_000);
+        clientKeys = new String[CLIENTS];
+        for (int i = 0; i < CLIENTS; i++) {
+            clientKeys[i] = "10." + (i >> 16) + "." + ((i >> 8) & 0xff) + "." + (i & 0xff);
+        }
+    }
+
+    @Benchmark
+    public long hotKey() {
+        return hotKeyLimiter.tryAcquire("203.0.113.7");
+    }
+
+    @Benchmark
+    public long spreadKeys() {
+        return spreadLimiter.tryAcquire(clientKeys[ThreadLocalRandom.current().nextInt(CLIENTS)]);
+    }
+}
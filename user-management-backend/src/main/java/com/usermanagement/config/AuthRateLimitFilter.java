@@ -0,0 +1,251 @@
+package com.usermanagement.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.usermanagement.dto.ErrorResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits the unauthenticated auth endpoints that cost BCrypt or SMTP work, per client IP and per
+ * target email. Limits use the {@code <permits>/<period>} format (period in s, m or h) under
+ * {@code app.rate-limit.<endpoint>.ip} and {@code .email}. The email is read from the JSON body,
+ * which is buffered and replayed to the controller; bodies over {@value #MAX_BUFFERED_BODY} bytes
+ * are rejected with 413 rather than passed on unchecked, since the auth requests are tiny. The client IP is the remote address, so set
+ * {@code server.forward-headers-strategy} when running behind a proxy.
+ */
+@Component
+public class AuthRateLimitFilter extends OncePerRequestFilter {
+
+    private static final int MAX_BUFFERED_BODY = 16 * 1024;
+    private static final String[] ENDPOINTS = {"login", "register", "forgot-password"};
+    private static final String PATH_PREFIX = "/api/auth/";
+
+    private final boolean enabled;
+    private final ObjectMapper objectMapper;
+    private final Map<String, EndpointLimits> limits = new HashMap<>();
+
+    public AuthRateLimitFilter(@Value("${app.rate-limit.enabled:true}") boolean enabled,
+                               @Value("${app.rate-limit.max-keys:100000}") long maxKeys,
+                               Environment environment,
+                               ObjectMapper objectMapper,
+                               MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.objectMapper = objectMapper;
+        for (String endpoint : ENDPOINTS) {
+            String prefix = "app.rate-limit." + endpoint;
+            limits.put(PATH_PREFIX + endpoint, new EndpointLimits(
+                    limiter(environment.getProperty(prefix + ".ip"), maxKeys),
+                    limiter(environment.getProperty(prefix + ".email"), maxKeys),
+                    rejectionCounter(meterRegistry, endpoint, "ip"),
+                    rejectionCounter(meterRegistry, endpoint, "email")));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled || !"POST".equals(request.getMethod()) || !limits.containsKey(request.getServletPath());
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+        EndpointLimits endpoint = limits.get(request.getServletPath());
+
+        if (endpoint.perIp != null) {
+            long waitNanos = endpoint.perIp.tryAcquire(request.getRemoteAddr());
+            if (waitNanos > 0) {
+                endpoint.ipRejections.increment();
+                reject(request, response, waitNanos);
+                return;
+            }
+        }
+
+        if (endpoint.perEmail != null) {
+            BufferedBodyRequest buffered = BufferedBodyRequest.read(request);
+            if (buffered == null) {
+                endpoint.emailRejections.increment();
+                rejectTooLarge(request, response);
+                return;
+            }
+            String email = readEmail(buffered.body);
+            if (email != null) {
+                long waitNanos = endpoint.perEmail.tryAcquire(email);
+                if (waitNanos > 0) {
+                    endpoint.emailRejections.increment();
+                    reject(request, response, waitNanos);
+                    return;
+                }
+            }
+            request = buffered;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private String readEmail(byte[] body) {
+        try {
+            JsonNode email = objectMapper.readTree(body).get("email");
+            return email != null && email.isTextual() ? email.asText().trim().toLowerCase(Locale.ROOT) : null;
+        } catch (IOException e) {
+            // Malformed bodies are rejected by the controller
+            return null;
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1L, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        writeError(request, response, HttpStatus.TOO_MANY_REQUESTS, "Too many requests, please retry later");
+    }
+
+    // An unread body would let the request skip the per-email limit
+    private void rejectTooLarge(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        writeError(request, response, HttpStatus.PAYLOAD_TOO_LARGE,
+                "Request body must not exceed " + MAX_BUFFERED_BODY + " bytes");
+    }
+
+    private void writeError(HttpServletRequest request, HttpServletResponse response, HttpStatus status,
+                            String message) throws IOException {
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(status.value())
+                .error(status.getReasonPhrase())
+                .message(message)
+                .path("uri=" + request.getRequestURI())
+                .build();
+
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+
+    private static RateLimiter limiter(String limit, long maxKeys) {
+        return limit == null || limit.isBlank() ? null : RateLimiter.parse(limit, maxKeys);
+    }
+
+    private static Counter rejectionCounter(MeterRegistry meterRegistry, String endpoint, String key) {
+        return Counter.builder("auth.rate.limit.rejected")
+                .tag("endpoint", endpoint)
+                .tag("key", key)
+                .register(meterRegistry);
+    }
+
+    private static final class EndpointLimits {
+        private final RateLimiter perIp;
+        private final RateLimiter perEmail;
+        private final Counter ipRejections;
+        private final Counter emailRejections;
+
+        private EndpointLimits(RateLimiter perIp, RateLimiter perEmail, Counter ipRejections, Counter emailRejections) {
+            this.perIp = perIp;
+            this.perEmail = perEmail;
+            this.ipRejections = ipRejections;
+            this.emailRejections = emailRejections;
+        }
+    }
+
+    /**
+     * Holds the whole body, at most {@link #MAX_BUFFERED_BODY} bytes, and replays it to
+     * downstream readers.
+     */
+    private static final class BufferedBodyRequest extends HttpServletRequestWrapper {
+        private final ServletInputStream original;
+        private final byte[] body;
+        private final InputStream replay;
+
+        private BufferedBodyRequest(HttpServletRequest request, ServletInputStream original, byte[] body) {
+            super(request);
+            this.original = original;
+            this.body = body;
+            this.replay = new ByteArrayInputStream(body);
+        }
+
+        /**
+         * Buffers the body, or returns null if it is longer than {@link #MAX_BUFFERED_BODY}.
+         */
+        private static BufferedBodyRequest read(HttpServletRequest request) throws IOException {
+            if (request.getContentLengthLong() > MAX_BUFFERED_BODY) {
+                return null;
+            }
+            ServletInputStream original = request.getInputStream();
+            byte[] body = original.readNBytes(MAX_BUFFERED_BODY);
+            if (body.length == MAX_BUFFERED_BODY && original.read() != -1) {
+                return null;
+            }
+            return new BufferedBodyRequest(request, original, body);
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            return new ServletInputStream() {
+                @Override
+                public int read() throws IOException {
+                    return replay.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) throws IOException {
+                    return replay.read(buffer, offset, length);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    try {
+                        return replay.available() == 0;
+                    } catch (IOException e) {
+                        return true;
+                    }
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // The container reports the original stream as fully read, and reads then come from the buffer
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    original.setReadListener(readListener);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+    }
+}
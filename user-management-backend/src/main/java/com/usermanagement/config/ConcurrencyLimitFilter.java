@@ -0,0 +1,201 @@
+package com.usermanagement.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.usermanagement.dto.ErrorResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Caps concurrent requests per endpoint group with an {@link AdaptiveConcurrencyLimit}, so an
+ * overloaded group sheds excess requests with an immediate 503 instead of queueing them in
+ * Tomcat until every request times out. Auth endpoints (BCrypt-bound), admin listings and
+ * exports, and profile reads adapt independently; other endpoints are not limited. Admin and
+ * profile requests only count once authenticated, so anonymous ones are turned away by the
+ * security chain without taking a slot. Limits are set under
+ * {@code app.concurrency-limit.<group>.initial-limit}, {@code .min-limit} and {@code .max-limit}.
+ */
+@Component
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private enum Group {
+        AUTH, ADMIN_LIST, PROFILE;
+
+        private String key() {
+            return name().toLowerCase(Locale.ROOT).replace('_', '-');
+        }
+    }
+
+    private final boolean enabled;
+    private final ObjectMapper objectMapper;
+    private final Map<Group, AdaptiveConcurrencyLimit> limits = new EnumMap<>(Group.class);
+    private final Map<Group, Counter> rejections = new EnumMap<>(Group.class);
+
+    public ConcurrencyLimitFilter(@Value("${app.concurrency-limit.enabled:true}") boolean enabled,
+                                  Environment environment,
+                                  ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.objectMapper = objectMapper;
+        for (Group group : Group.values()) {
+            String prefix = "app.concurrency-limit." + group.key();
+            AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(
+                    environment.getProperty(prefix + ".initial-limit", Integer.class, 20),
+                    environment.getProperty(prefix + ".min-limit", Integer.class, 4),
+                    environment.getProperty(prefix + ".max-limit", Integer.class, 200));
+            limits.put(group, limit);
+            Gauge.builder("concurrency.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+                    .tag("group", group.key())
+                    .register(meterRegistry);
+            Gauge.builder("concurrency.inflight", limit, AdaptiveConcurrencyLimit::getInFlight)
+                    .tag("group", group.key())
+                    .register(meterRegistry);
+            rejections.put(group, Counter.builder("concurrency.rejected")
+                    .tag("group", group.key())
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled || groupOf(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+        Group group = groupOf(request);
+        AdaptiveConcurrencyLimit limit = limits.get(group);
+        if (!limit.tryAcquire()) {
+            rejections.get(group).increment();
+            reject(request, response);
+            return;
+        }
+
+        long startedAt = System.nanoTime();
+        boolean completed = false;
+        try {
+            filterChain.doFilter(request, response);
+            completed = true;
+        } finally {
+            if (completed && request.isAsyncStarted()) {
+                // Streaming exports hold their slot until the async work finishes; their duration is not a latency sample
+                request.getAsyncContext().addListener(new ReleasingListener(limit, startedAt));
+            } else {
+                limit.release(System.nanoTime() - startedAt, !completed || isOverloaded(response.getStatus()));
+            }
+        }
+    }
+
+    private static Group groupOf(HttpServletRequest request) {
+        String path = request.getServletPath();
+        String method = request.getMethod();
+        if ("POST".equals(method) && path.startsWith("/api/auth/")) {
+            return Group.AUTH;
+        }
+        if (!"GET".equals(method) || !isAuthenticated()) {
+            return null;
+        }
+        if (path.startsWith("/api/admin/users") || path.equals("/api/users") || path.equals("/api/users/scroll")) {
+            return Group.ADMIN_LIST;
+        }
+        if (path.startsWith("/api/users/")) {
+            return Group.PROFILE;
+        }
+        return null;
+    }
+
+    private static boolean isAuthenticated() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken);
+    }
+
+    // 5xx responses and hashing-pool rejections (429) mean the request ran into overload
+    private static boolean isOverloaded(int status) {
+        return status >= 500 || status == HttpStatus.TOO_MANY_REQUESTS.value();
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .error("Service Unavailable")
+                .message("Server is busy, please retry shortly")
+                .path("uri=" + request.getRequestURI())
+                .build();
+
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+
+    private static final class ReleasingListener implements AsyncListener {
+        private final AdaptiveConcurrencyLimit limit;
+        private final long startedAt;
+        private boolean released;
+
+        private ReleasingListener(AdaptiveConcurrencyLimit limit, long startedAt) {
+            this.limit = limit;
+            this.startedAt = startedAt;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release(false);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release(true);
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release(true);
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+
+        // onComplete also follows a timeout or error, so only the first event counts
+        private synchronized void release(boolean overloaded) {
+            if (released) {
+                return;
+            }
+            released = true;
+            if (overloaded) {
+                limit.release(System.nanoTime() - startedAt, true);
+            } else {
+                limit.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.usermanagement.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.usermanagement.entity.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.spi.CachingProvider;
+import java.time.Duration;
+import java.util.OptionalLong;
+
+/**
+ * Second-level cache for entities and natural ids, held in a local Caffeine JCache manager. Regions
+ * are created here with their own size and TTL rather than left to provider defaults; the TTL also
+ * bounds how long another instance's writes can go unseen, which is why login reads credentials
+ * around the cache. Bulk JPQL updates and deletes make
+ * Hibernate evict the whole region of the affected entity.
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    @Value("${app.cache.hibernate.concurrency-strategy:read-write}")
+    private String concurrencyStrategy;
+
+    @Value("${app.cache.hibernate.users.max-size:10000}")
+    private long usersMaxSize;
+
+    @Value("${app.cache.hibernate.users.ttl:10m}")
+    private Duration usersTtl;
+
+    @Value("${app.cache.hibernate.users-by-email.max-size:10000}")
+    private long usersByEmailMaxSize;
+
+    @Value("${app.cache.hibernate.users-by-email.ttl:10m}")
+    private Duration usersByEmailTtl;
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        // A provider of its own rather than the JVM-wide one from Caching, so several application
+        // contexts in one JVM (such as cached test contexts) each get separate regions
+        CachingProvider provider = new CaffeineCachingProvider();
+        CacheManager cacheManager = provider.getCacheManager(provider.getDefaultURI(), getClass().getClassLoader());
+        cacheManager.createCache(User.CACHE_REGION, region(usersMaxSize, usersTtl));
+        cacheManager.createCache(User.EMAIL_CACHE_REGION, region(usersByEmailMaxSize, usersByEmailTtl));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put("hibernate.cache.use_second_level_cache", true);
+            properties.put("hibernate.cache.region.factory_class", "jcache");
+            properties.put("hibernate.javax.cache.cache_manager", hibernateCacheManager);
+            properties.put("hibernate.javax.cache.missing_cache_strategy", "create-warn");
+            properties.put("hibernate.cache.default_cache_concurrency_strategy", concurrencyStrategy);
+            properties.put("javax.persistence.sharedCache.mode", "ENABLE_SELECTIVE");
+        };
+    }
+
+    private static CaffeineConfiguration<Object, Object> region(long maxSize, Duration ttl) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maxSize));
+        configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        configuration.setStatisticsEnabled(true);
+        return configuration;
+    }
+}
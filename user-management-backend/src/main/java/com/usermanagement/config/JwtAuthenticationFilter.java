@@ -1,10 +1,18 @@
 package com.usermanagement.config;
 
+import com.usermanagement.service.JwtService;
+import com.usermanagement.service.TokenRevocationService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -14,44 +22,102 @@ import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    private final JwtUtil jwtUtil;
+    private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenRevocationService tokenRevocationService;
+    private final boolean claimsPrincipal;
+    private final Timer authenticatedTimer;
+    private final Timer rejectedTimer;
 
-    public JwtAuthenticationFilter(JwtUtil jwtUtil, UserDetailsService userDetailsService) {
-        this.jwtUtil = jwtUtil;
+    public JwtAuthenticationFilter(JwtService jwtService, UserDetailsService userDetailsService,
+                                   VerifiedTokenCache verifiedTokenCache,
+                                   TokenRevocationService tokenRevocationService,
+                                   @Value("${jwt.principal-source:claims}") String principalSource,
+                                   MeterRegistry meterRegistry) {
+        this.jwtService = jwtService;
         this.userDetailsService = userDetailsService;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.tokenRevocationService = tokenRevocationService;
+        this.claimsPrincipal = "claims".equalsIgnoreCase(principalSource);
+        this.authenticatedTimer = filterTimer(meterRegistry, "authenticated");
+        this.rejectedTimer = filterTimer(meterRegistry, "rejected");
     }
 
     @Override
-    protected void doFilterInternal(@NonNull HttpServletRequest request, 
-                                  @NonNull HttpServletResponse response, 
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                  @NonNull HttpServletResponse response,
                                   @NonNull FilterChain filterChain)
             throws ServletException, IOException {
-        
+
         final String authorizationHeader = request.getHeader("Authorization");
-        String username = null;
-        String jwt = null;
 
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            jwt = jwtUtil.extractTokenFromRequest(authorizationHeader);
-            username = jwtUtil.extractUsername(jwt);
-        }
+        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            long startedAt = System.nanoTime();
+            String jwt = jwtService.extractTokenFromRequest(authorizationHeader);
+            Claims claims = verify(jwt);
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+            UserDetails userDetails = claims != null ? resolvePrincipal(claims) : null;
 
-            if (jwtUtil.validateToken(jwt, userDetails)) {
+            if (userDetails != null) {
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authentication);
             }
+            // Only the token handling is timed, not the rest of the chain
+            long elapsedNanos = System.nanoTime() - startedAt;
+            (userDetails != null ? authenticatedTimer : rejectedTimer).record(elapsedNanos, TimeUnit.NANOSECONDS);
+            ServerTiming.record(ServerTiming.Phase.AUTH, elapsedNanos);
+            if (userDetails instanceof AuthenticatedUser && ((AuthenticatedUser) userDetails).isAdmin()) {
+                ServerTiming timing = ServerTiming.current();
+                if (timing != null) {
+                    timing.authorize();
+                }
+            }
         }
 
         filterChain.doFilter(request, response);
     }
-} 
\ No newline at end of file
+
+    private UserDetails resolvePrincipal(Claims claims) {
+        Long userId = claims.get(JwtService.CLAIM_ID, Long.class);
+        Integer tokenVersion = claims.get(JwtService.CLAIM_VERSION, Integer.class);
+
+        if (claimsPrincipal && userId != null && tokenVersion != null && claims.get(JwtService.CLAIM_ROLE) != null) {
+            return tokenRevocationService.isCurrent(userId, tokenVersion)
+                    ? AuthenticatedUser.fromClaims(claims)
+                    : null;
+        }
+
+        if (claims.getSubject() == null) {
+            return null;
+        }
+        try {
+            return this.userDetailsService.loadUserByUsername(claims.getSubject());
+        } catch (UsernameNotFoundException e) {
+            // Token outlived its user; continue unauthenticated
+            return null;
+        }
+    }
+
+    private Claims verify(String jwt) {
+        try {
+            return verifiedTokenCache.verify(jwt, jwtService::parseToken);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static Timer filterTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("auth.jwt.filter")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,60 @@
+package com.usermanagement.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Stored hashes use the {@code {id}hash} format so several algorithms can coexist. Hashes from
+ * before the prefix was introduced are plain BCrypt and still verify. Any hash whose algorithm or
+ * cost is below the current setting is upgraded on the next successful login.
+ */
+@Slf4j
+@Configuration
+public class PasswordEncoderConfig {
+
+    @Value("${app.security.password.algorithm:bcrypt}")
+    private String algorithm;
+
+    @Value("${app.security.password.bcrypt-strength:0}")
+    private int bcryptStrength;
+
+    @Value("${app.security.password.target-hash-time:250ms}")
+    private Duration targetHashTime;
+
+    @Value("${app.security.password.min-bcrypt-strength:10}")
+    private int minBcryptStrength;
+
+    @Value("${app.security.password.max-bcrypt-strength:16}")
+    private int maxBcryptStrength;
+
+    @Bean
+    public PasswordEncoder passwordEncoder(PasswordHashingExecutor passwordHashingExecutor) {
+        int strength = bcryptStrength > 0
+                ? bcryptStrength
+                : BCryptStrengthCalibrator.calibrate(targetHashTime, minBcryptStrength, maxBcryptStrength);
+        log.info("Using BCrypt strength {} (target hash time {})", strength, targetHashTime);
+
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(strength);
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put("bcrypt", bcrypt);
+        encoders.put("pbkdf2", new Pbkdf2PasswordEncoder());
+
+        if (!encoders.containsKey(algorithm)) {
+            throw new IllegalStateException("Unsupported password algorithm: " + algorithm);
+        }
+
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(algorithm, encoders);
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+        return new OffloadingPasswordEncoder(delegating, passwordHashingExecutor);
+    }
+}
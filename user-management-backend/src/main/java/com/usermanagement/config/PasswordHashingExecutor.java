@@ -0,0 +1,149 @@
+package com.usermanagement.config;
+
+import com.usermanagement.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs password hashing on a small, core-count-sized pool with a bounded queue, so bursts of
+ * logins and registrations cannot occupy every servlet worker. Work that cannot be queued, or
+ * that waits longer than the configured limit, is rejected with {@link TooManyRequestsException}.
+ * BCrypt ignores interrupts, so a hash that has already started runs to completion even after
+ * its caller timed out; a task still queued when its deadline passes is dropped unrun instead.
+ * {@code max-wait} should therefore cover a full queue ({@code queue-capacity / threads} hashes)
+ * plus one hash, or callers time out while the pool keeps working through their abandoned tasks.
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final long maxWaitMillis;
+    private final long retryAfterSeconds;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Timer queueWaitTimer;
+    private final Counter rejections;
+
+    public PasswordHashingExecutor(@Value("${app.password-hashing.threads:0}") int threads,
+                                   @Value("${app.password-hashing.queue-capacity:64}") int queueCapacity,
+                                   @Value("${app.password-hashing.max-wait:2s}") Duration maxWait,
+                                   @Value("${app.password-hashing.retry-after:1s}") Duration retryAfter,
+                                   MeterRegistry meterRegistry) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> new HashingThread(runnable, "password-hash-" + threadCount.incrementAndGet()),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.maxWaitMillis = maxWait.toMillis();
+        this.retryAfterSeconds = Math.max(1L, retryAfter.getSeconds());
+
+        new ExecutorServiceMetrics(executor, "passwordHashing", Tags.empty()).bindTo(meterRegistry);
+        this.encodeTimer = hashTimer(meterRegistry, "encode");
+        this.matchesTimer = hashTimer(meterRegistry, "matches");
+        this.queueWaitTimer = Timer.builder("password.hash.queue.wait")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.rejections = Counter.builder("password.hash.rejected").register(meterRegistry);
+    }
+
+    public String encode(Supplier<String> task) {
+        return execute(encodeTimer, task);
+    }
+
+    public boolean matches(Supplier<Boolean> task) {
+        return execute(matchesTimer, task);
+    }
+
+    private <T> T execute(Timer hashTimer, Supplier<T> task) {
+        if (Thread.currentThread() instanceof HashingThread) {
+            return hashTimer.record(task);
+        }
+
+        long timingStartedAt = ServerTiming.start();
+        try {
+            return submitAndWait(hashTimer, task);
+        } finally {
+            ServerTiming.stop(ServerTiming.Phase.HASH, timingStartedAt);
+        }
+    }
+
+    private <T> T submitAndWait(Timer hashTimer, Supplier<T> task) {
+        long enqueuedAt = System.nanoTime();
+        long deadline = enqueuedAt + TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                queueWaitTimer.record(startedAt - enqueuedAt, TimeUnit.NANOSECONDS);
+                // The caller has given up (or is about to); do not burn a pool thread on a hash nobody reads
+                if (startedAt - deadline >= 0) {
+                    throw new TimeoutException("Password hashing task expired in the queue");
+                }
+                return hashTimer.record(task);
+            });
+        } catch (RejectedExecutionException e) {
+            rejections.increment();
+            throw new TooManyRequestsException(retryAfterSeconds);
+        }
+
+        try {
+            return future.get(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Interrupting a running hash has no effect; this only frees the queue slot of a task that has not started
+            future.cancel(false);
+            executor.remove((Runnable) future);
+            rejections.increment();
+            throw new TooManyRequestsException(retryAfterSeconds);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                rejections.increment();
+                throw new TooManyRequestsException(retryAfterSeconds);
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private static Timer hashTimer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("password.hash")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static final class HashingThread extends Thread {
+        private HashingThread(Runnable runnable, String name) {
+            super(runnable, name);
+            setDaemon(true);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.usermanagement.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A keyed token bucket implemented as GCRA: each key holds only its theoretical arrival time in an
+ * {@link AtomicLong}, updated with a CAS, so checks never block. A key idle for one full period
+ * has a full bucket again, which is why entries can expire after that long without changing any
+ * decision. The number of tracked keys is bounded.
+ */
+public class RateLimiter {
+
+    private final Cache<String, AtomicLong> arrivals;
+    private final long emissionIntervalNanos;
+    private final long burstNanos;
+
+    public RateLimiter(int permits, Duration period, long maxKeys) {
+        if (permits <= 0 || period.isZero() || period.isNegative()) {
+            throw new IllegalArgumentException("Rate limit must allow at least one request per positive period");
+        }
+        this.emissionIntervalNanos = period.toNanos() / permits;
+        this.burstNanos = emissionIntervalNanos * permits;
+        this.arrivals = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(period)
+                .build();
+    }
+
+    public static RateLimiter parse(String limit, long maxKeys) {
+        int separator = limit.indexOf('/');
+        if (separator <= 0) {
+            throw new IllegalArgumentException("Rate limit must look like <permits>/<period>, e.g. 10/1m: " + limit);
+        }
+        int permits = Integer.parseInt(limit.substring(0, separator).trim());
+        Duration period = Duration.parse("PT" + limit.substring(separator + 1).trim().toUpperCase());
+        return new RateLimiter(permits, period, maxKeys);
+    }
+
+    /**
+     * Takes one permit for the key.
+     *
+     * @return 0 if the request is allowed, otherwise the nanoseconds until it would be
+     */
+    public long tryAcquire(String key) {
+        AtomicLong arrival = arrivals.get(key, k -> new AtomicLong(Long.MIN_VALUE));
+        long now = System.nanoTime();
+        while (true) {
+            long theoretical = arrival.get();
+            long next = Math.max(theoretical, now) + emissionIntervalNanos;
+            long allowedAt = next - burstNanos;
+            if (allowedAt > now) {
+                return allowedAt - now;
+            }
+            if (arrival.compareAndSet(theoretical, next)) {
+                return 0L;
+            }
+        }
+    }
+
+    public long trackedKeys() {
+        return arrivals.estimatedSize();
+    }
+}
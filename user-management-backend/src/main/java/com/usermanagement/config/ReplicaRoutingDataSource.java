@@ -0,0 +1,242 @@
+package com.usermanagement.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.lang.NonNull;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends connections for read-only transactions to a healthy replica in round-robin order and
+ * everything else to the primary. A client that committed a write is pinned to the primary for
+ * {@code stickyFor}, keyed by both principal and client IP, so it reads its own writes despite
+ * replication lag. A replica that fails a connection attempt or a health check is taken out of
+ * rotation until a later check succeeds. Health checks run on a thread of their own rather than the
+ * shared scheduler, so long-running jobs there cannot keep a recovered replica out of rotation.
+ * Metrics are bound as a {@link MeterBinder} rather than taken in the constructor, because the
+ * registry's own data source metrics depend on this bean. Must be wrapped in a lazy connection
+ * proxy so the transaction's read-only flag is known when the connection is actually fetched.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements MeterBinder, Closeable {
+
+    private final HikariDataSource primary;
+    private final List<Replica> replicas;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Cache<String, Boolean> recentWriters;
+    private final int validationTimeoutSeconds;
+    private final LongAdder toPrimary = new LongAdder();
+    private final LongAdder toReplica = new LongAdder();
+    private final LongAdder stickyReads = new LongAdder();
+    private final LongAdder fallbackReads = new LongAdder();
+    private final ScheduledExecutorService healthChecker;
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicas, Duration stickyFor,
+                                    Duration validationTimeout, Duration healthCheckInterval) {
+        this.primary = primary;
+        this.replicas = new ArrayList<>(replicas.size());
+        replicas.forEach(replica -> this.replicas.add(new Replica(replica)));
+        this.recentWriters = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(stickyFor)
+                .build();
+        this.validationTimeoutSeconds = (int) Math.max(1, validationTimeout.toSeconds());
+
+        this.healthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = healthCheckInterval.toMillis();
+        healthChecker.scheduleWithFixedDelay(this::checkReplicas, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry meterRegistry) {
+        routed(meterRegistry, toPrimary, "primary", "write");
+        routed(meterRegistry, toReplica, "replica", "read");
+        routed(meterRegistry, stickyReads, "primary", "sticky");
+        routed(meterRegistry, fallbackReads, "primary", "no-healthy-replica");
+        Gauge.builder("db.replicas.healthy", this, routing -> routing.replicas.stream().filter(r -> r.healthy).count())
+                .register(meterRegistry);
+
+        bindPool(primary, meterRegistry);
+        replicas.forEach(replica -> bindPool(replica.dataSource, meterRegistry));
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    private Connection route(ConnectionFactory factory) throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            rememberWriter();
+            toPrimary.increment();
+            return factory.connect(primary);
+        }
+        if (isRecentWriter()) {
+            stickyReads.increment();
+            return factory.connect(primary);
+        }
+        for (int attempt = 0; attempt < replicas.size(); attempt++) {
+            Replica replica = replicas.get(Math.floorMod(next.getAndIncrement(), replicas.size()));
+            if (!replica.healthy) {
+                continue;
+            }
+            try {
+                Connection connection = factory.connect(replica.dataSource);
+                toReplica.increment();
+                return connection;
+            } catch (SQLException e) {
+                replica.markDown(e);
+            }
+        }
+        fallbackReads.increment();
+        return factory.connect(primary);
+    }
+
+    void checkReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                if (connection.isValid(validationTimeoutSeconds)) {
+                    replica.markUp();
+                } else {
+                    // Hikari skips its own validation for recently used connections, so drop it here
+                    replica.dataSource.evictConnection(connection);
+                    replica.markDown(null);
+                }
+            } catch (SQLException e) {
+                replica.markDown(e);
+            } catch (RuntimeException e) {
+                // An exception escaping here would cancel every later check
+                log.warn("Health check of replica {} failed", replica.dataSource.getPoolName(), e);
+            }
+        }
+    }
+
+    // Pins the client to the primary once the write transaction has committed
+    private void rememberWriter() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        List<String> clients = clientKeys();
+        if (clients.isEmpty()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                clients.forEach(client -> recentWriters.put(client, Boolean.TRUE));
+            }
+        });
+    }
+
+    private boolean isRecentWriter() {
+        for (String client : clientKeys()) {
+            if (recentWriters.getIfPresent(client) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<String> clientKeys() {
+        List<String> keys = new ArrayList<>(2);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            keys.add("user:" + authentication.getName());
+        }
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes) {
+            String address = ((ServletRequestAttributes) attributes).getRequest().getRemoteAddr();
+            if (address != null) {
+                keys.add("ip:" + address);
+            }
+        }
+        return keys;
+    }
+
+    @Override
+    public void close() {
+        healthChecker.shutdownNow();
+        replicas.forEach(replica -> replica.dataSource.close());
+        primary.close();
+    }
+
+    private static void routed(MeterRegistry meterRegistry, LongAdder count, String target, String reason) {
+        FunctionCounter.builder("db.routing.connections", count, LongAdder::sum)
+                .tag("target", target)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    // Hikari accepts a registry once, even on a pool that has already started
+    private static void bindPool(HikariDataSource pool, MeterRegistry meterRegistry) {
+        if (pool.getMetricRegistry() == null) {
+            pool.setMetricRegistry(meterRegistry);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ConnectionFactory {
+        Connection connect(DataSource dataSource) throws SQLException;
+    }
+
+    private static final class Replica {
+        private final HikariDataSource dataSource;
+        private volatile boolean healthy = true;
+
+        private Replica(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        private void markDown(SQLException cause) {
+            if (healthy) {
+                healthy = false;
+                log.warn("Replica {} taken out of rotation: {}", dataSource.getPoolName(),
+                        cause != null ? cause.getMessage() : "connection failed validation");
+            }
+        }
+
+        private void markUp() {
+            if (!healthy) {
+                healthy = true;
+                log.info("Replica {} back in rotation", dataSource.getPoolName());
+            }
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.usermanagement.config;
+
+import java.util.Locale;
+
+/**
+ * Per-request phase timings reported in the {@code Server-Timing} response header. Timing is
+ * only collected on requests that {@link ServerTimingFilter} opted in; on all others
+ * {@link #start()} is a single thread-local read and {@link #stop} does nothing. Phases may
+ * overlap: database time, for instance, is also part of the user lookup.
+ */
+public final class ServerTiming {
+
+    public enum Phase {
+        AUTH("auth", "Filter and JWT verification"),
+        USER("user", "User lookup"),
+        HASH("hash", "Password hashing"),
+        DB("db", "Database"),
+        SERIALIZATION("ser", "Response serialization"),
+        MAIL("mail", "Mail enqueue");
+
+        private final String metric;
+        private final String description;
+
+        Phase(String metric, String description) {
+            this.metric = metric;
+            this.description = description;
+        }
+    }
+
+    private static final ThreadLocal<ServerTiming> CURRENT = new ThreadLocal<>();
+    private static final Phase[] PHASES = Phase.values();
+
+    private final long startedAt = System.nanoTime();
+    private final long[] nanos = new long[PHASES.length];
+    private boolean authorized;
+    private long serializationStartedAt;
+
+    private ServerTiming(boolean authorized) {
+        this.authorized = authorized;
+    }
+
+    static ServerTiming begin(boolean authorized) {
+        ServerTiming timing = new ServerTiming(authorized);
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    static ServerTiming current() {
+        return CURRENT.get();
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * The start of a timed section, or 0 when the current request is not being timed.
+     */
+    public static long start() {
+        return CURRENT.get() != null ? System.nanoTime() : 0L;
+    }
+
+    public static void stop(Phase phase, long startedAt) {
+        if (startedAt != 0L) {
+            record(phase, System.nanoTime() - startedAt);
+        }
+    }
+
+    public static void record(Phase phase, long elapsedNanos) {
+        ServerTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.nanos[phase.ordinal()] += elapsedNanos;
+        }
+    }
+
+    // Called once the caller is known to be an administrator
+    void authorize() {
+        authorized = true;
+    }
+
+    boolean isAuthorized() {
+        return authorized;
+    }
+
+    void serializationStarted() {
+        if (serializationStartedAt == 0L) {
+            serializationStartedAt = System.nanoTime();
+        }
+    }
+
+    String toHeader(long databaseNanos) {
+        long now = System.nanoTime();
+        nanos[Phase.DB.ordinal()] += databaseNanos;
+        if (serializationStartedAt != 0L) {
+            nanos[Phase.SERIALIZATION.ordinal()] += now - serializationStartedAt;
+        }
+
+        StringBuilder header = new StringBuilder();
+        for (Phase phase : PHASES) {
+            if (nanos[phase.ordinal()] > 0) {
+                append(header, phase.metric, phase.description, nanos[phase.ordinal()]);
+            }
+        }
+        append(header, "total", "Total", now - startedAt);
+        return header.toString();
+    }
+
+    private static void append(StringBuilder header, String metric, String description, long nanos) {
+        if (header.length() > 0) {
+            header.append(", ");
+        }
+        header.append(metric)
+                .append(";desc=\"").append(description).append('"')
+                .append(";dur=").append(String.format(Locale.ROOT, "%.2f", nanos / 1_000_000.0));
+    }
+}
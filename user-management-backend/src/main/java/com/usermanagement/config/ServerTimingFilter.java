@@ -0,0 +1,203 @@
+package com.usermanagement.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.util.Locale;
+
+/**
+ * Adds a {@code Server-Timing} header when {@code app.server-timing.mode} is {@code always}, or,
+ * in the default {@code admin-header} mode, when an administrator sends the
+ * {@value #REQUEST_HEADER} header. Timed responses are buffered so the header can still be set
+ * after serialization; async responses get the timings up to the handler's return and then
+ * stream unbuffered, as do non-blocking writers. Requests that do not opt in pass straight
+ * through, and so does any body whose writing starts before the JWT filter has confirmed an
+ * administrator, so sending the header cannot make the server buffer responses for anyone else.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    public static final String REQUEST_HEADER = "X-Server-Timing";
+    private static final String RESPONSE_HEADER = "Server-Timing";
+
+    private final String mode;
+
+    public ServerTimingFilter(@Value("${app.server-timing.mode:admin-header}") String mode) {
+        this.mode = mode.toLowerCase(Locale.ROOT);
+        if (!this.mode.equals("off") && !this.mode.equals("admin-header") && !this.mode.equals("always")) {
+            throw new IllegalStateException("app.server-timing.mode must be off, admin-header or always: " + mode);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return mode.equals("off") || (mode.equals("admin-header") && request.getHeader(REQUEST_HEADER) == null);
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+        ServerTiming timing = ServerTiming.begin(mode.equals("always"));
+        BufferedResponse buffered = new BufferedResponse(response, timing);
+        try {
+            filterChain.doFilter(request, buffered);
+        } finally {
+            ServerTiming.end();
+            if (timing.isAuthorized() && !response.isCommitted()) {
+                SqlRequestStats sql = (SqlRequestStats) request.getAttribute(SqlRequestStats.ATTRIBUTE);
+                response.addHeader(RESPONSE_HEADER, timing.toHeader(sql != null ? sql.getDatabaseNanos() : 0L));
+            }
+            buffered.release();
+        }
+    }
+
+    /**
+     * Holds the body in memory until {@link #release()}, after which everything written so far
+     * and from then on goes to the real response. Nothing is held if the request was not
+     * authorized by the time the body is first accessed.
+     */
+    private static final class BufferedResponse extends HttpServletResponseWrapper {
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(8192);
+        private final ServerTiming timing;
+        private boolean released;
+        private ServletOutputStream outputStream;
+        private PrintWriter writer;
+
+        private BufferedResponse(HttpServletResponse response, ServerTiming timing) {
+            super(response);
+            this.timing = timing;
+        }
+
+        // Decided once, when the body is first touched
+        private void passThroughUnlessAuthorized() {
+            if (outputStream == null && writer == null && !timing.isAuthorized()) {
+                released = true;
+            }
+        }
+
+        private void release() throws IOException {
+            if (released) {
+                return;
+            }
+            released = true;
+            if (writer != null) {
+                writer.flush();
+            }
+            if (buffer.size() > 0) {
+                ServletOutputStream target = getResponse().getOutputStream();
+                buffer.writeTo(target);
+                target.flush();
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            if (outputStream == null) {
+                passThroughUnlessAuthorized();
+                outputStream = new ServletOutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        if (released) {
+                            getResponse().getOutputStream().write(b);
+                        } else {
+                            buffer.write(b);
+                        }
+                    }
+
+                    @Override
+                    public void write(byte[] bytes, int offset, int length) throws IOException {
+                        if (released) {
+                            getResponse().getOutputStream().write(bytes, offset, length);
+                        } else {
+                            buffer.write(bytes, offset, length);
+                        }
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        if (released) {
+                            getResponse().getOutputStream().flush();
+                        }
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        if (!released) {
+                            return true;
+                        }
+                        try {
+                            return getResponse().getOutputStream().isReady();
+                        } catch (IOException e) {
+                            return false;
+                        }
+                    }
+
+                    // A non-blocking writer takes over the real stream, so the body stops being buffered
+                    @Override
+                    public void setWriteListener(WriteListener writeListener) {
+                        try {
+                            release();
+                            getResponse().getOutputStream().setWriteListener(writeListener);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }
+                };
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() {
+            if (writer == null) {
+                passThroughUnlessAuthorized();
+                writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), Charset.forName(getCharacterEncoding())));
+            }
+            return writer;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            passThroughUnlessAuthorized();
+            if (released) {
+                super.flushBuffer();
+            }
+        }
+
+        @Override
+        public void resetBuffer() {
+            if (!released) {
+                buffer.reset();
+            }
+            super.resetBuffer();
+        }
+
+        @Override
+        public void reset() {
+            if (!released) {
+                buffer.reset();
+            }
+            super.reset();
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.usermanagement.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import javax.mail.MessagingException;
+import javax.mail.SendFailedException;
+import javax.mail.Transport;
+import javax.mail.internet.MimeMessage;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps a few authenticated SMTP connections open and sends many messages over each, instead of
+ * paying a TCP, STARTTLS and AUTH handshake per message as {@code JavaMailSender.send} does.
+ * Connections come from the session configured on {@link JavaMailSenderImpl}, are reused most
+ * recently used first, and are closed after a message limit or when idle for too long. A reused
+ * connection that fails is replaced by a fresh one and the message is sent once more.
+ */
+@Component
+public class SmtpTransportPool {
+
+    private final JavaMailSenderImpl mailSender;
+    private final BlockingDeque<PooledTransport> idle = new LinkedBlockingDeque<>();
+    private final Semaphore permits;
+    private final long maxIdleNanos;
+    private final int maxMessagesPerConnection;
+    private final long borrowTimeoutMillis;
+    private final Timer sendTimer;
+    private final Counter opened;
+    private final Counter reused;
+    private final Counter closed;
+
+    public SmtpTransportPool(JavaMailSenderImpl mailSender,
+                             @Value("${app.mail.pool.size:4}") int size,
+                             @Value("${app.mail.pool.max-idle:60s}") Duration maxIdle,
+                             @Value("${app.mail.pool.max-messages-per-connection:100}") int maxMessagesPerConnection,
+                             @Value("${app.mail.pool.borrow-timeout:30s}") Duration borrowTimeout,
+                             MeterRegistry meterRegistry) {
+        this.mailSender = mailSender;
+        this.permits = new Semaphore(size);
+        this.maxIdleNanos = maxIdle.toNanos();
+        this.maxMessagesPerConnection = maxMessagesPerConnection;
+        this.borrowTimeoutMillis = borrowTimeout.toMillis();
+
+        this.sendTimer = Timer.builder("mail.send")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.opened = connectionCounter(meterRegistry, "opened");
+        this.reused = connectionCounter(meterRegistry, "reused");
+        this.closed = connectionCounter(meterRegistry, "closed");
+        Gauge.builder("mail.connections.idle", idle, BlockingDeque::size).register(meterRegistry);
+    }
+
+    public void send(MimeMessage message) throws MessagingException {
+        long startedAt = System.nanoTime();
+        acquirePermit();
+        try {
+            message.saveChanges();
+            PooledTransport transport = takeIdle();
+            boolean wasIdle = transport != null;
+            if (wasIdle) {
+                reused.increment();
+            } else {
+                transport = open();
+            }
+
+            try {
+                transport.send(message);
+            } catch (SendFailedException e) {
+                // Rejected recipients leave the connection usable
+                release(transport);
+                throw e;
+            } catch (MessagingException e) {
+                close(transport);
+                if (!wasIdle) {
+                    throw e;
+                }
+                // The server may have dropped the idle connection; retry once on a fresh one
+                transport = open();
+                try {
+                    transport.send(message);
+                } catch (MessagingException retryFailure) {
+                    close(transport);
+                    throw retryFailure;
+                }
+            }
+            release(transport);
+        } finally {
+            permits.release();
+            sendTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.mail.pool.eviction-interval:PT30S}")
+    public void evictIdle() {
+        List<PooledTransport> expired = new ArrayList<>();
+        long now = System.nanoTime();
+        idle.removeIf(transport -> {
+            boolean stale = now - transport.lastUsedAt > maxIdleNanos;
+            if (stale) {
+                expired.add(transport);
+            }
+            return stale;
+        });
+        expired.forEach(this::close);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        PooledTransport transport;
+        while ((transport = idle.pollFirst()) != null) {
+            close(transport);
+        }
+    }
+
+    private void acquirePermit() throws MessagingException {
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new MessagingException("Timed out waiting for an SMTP connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MessagingException("Interrupted while waiting for an SMTP connection", e);
+        }
+    }
+
+    private PooledTransport takeIdle() {
+        PooledTransport transport;
+        while ((transport = idle.pollFirst()) != null) {
+            if (System.nanoTime() - transport.lastUsedAt <= maxIdleNanos) {
+                return transport;
+            }
+            close(transport);
+        }
+        return null;
+    }
+
+    private PooledTransport open() throws MessagingException {
+        String username = mailSender.getUsername();
+        String password = mailSender.getPassword();
+        if ("".equals(username)) {
+            username = null;
+            if ("".equals(password)) {
+                password = null;
+            }
+        }
+        Transport transport = mailSender.getSession().getTransport(
+                mailSender.getProtocol() != null ? mailSender.getProtocol() : "smtp");
+        transport.connect(mailSender.getHost(), mailSender.getPort(), username, password);
+        opened.increment();
+        return new PooledTransport(transport);
+    }
+
+    private void release(PooledTransport transport) {
+        if (transport.messagesSent >= maxMessagesPerConnection) {
+            close(transport);
+            return;
+        }
+        transport.lastUsedAt = System.nanoTime();
+        idle.offerFirst(transport);
+    }
+
+    private void close(PooledTransport transport) {
+        try {
+            transport.transport.close();
+        } catch (MessagingException ignored) {
+            // The connection is being discarded either way
+        }
+        closed.increment();
+    }
+
+    private static Counter connectionCounter(MeterRegistry meterRegistry, String event) {
+        return Counter.builder("mail.connections")
+                .tag("event", event)
+                .register(meterRegistry);
+    }
+
+    private static final class PooledTransport {
+        private final Transport transport;
+        private long lastUsedAt = System.nanoTime();
+        private int messagesSent;
+
+        private PooledTransport(Transport transport) {
+            this.transport = transport;
+        }
+
+        private void send(MimeMessage message) throws MessagingException {
+            transport.sendMessage(message, message.getAllRecipients());
+            messagesSent++;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.usermanagement.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Collects {@link SqlRequestStats} for each request, including SQL run by the security filters,
+ * and leaves them in the {@link SqlRequestStats#ATTRIBUTE} request attribute. Requests over the
+ * statement budget are logged, as is any statement executed {@code repeated-statement-threshold}
+ * or more times in one request, the usual shape of an N+1 load.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "app.sql-accounting.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlAccountingFilter extends OncePerRequestFilter {
+
+    private static final String UNKNOWN_URI = "UNKNOWN";
+
+    private final int statementBudget;
+    private final int repeatedStatementThreshold;
+    private final MeterRegistry meterRegistry;
+
+    public SqlAccountingFilter(@Value("${app.sql-accounting.statement-budget:10}") int statementBudget,
+                               @Value("${app.sql-accounting.repeated-statement-threshold:3}") int repeatedStatementThreshold,
+                               MeterRegistry meterRegistry) {
+        this.statementBudget = statementBudget;
+        this.repeatedStatementThreshold = repeatedStatementThreshold;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlRequestStats stats = SqlRequestStats.begin();
+        request.setAttribute(SqlRequestStats.ATTRIBUTE, stats);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlRequestStats.end();
+            report(request, stats);
+        }
+    }
+
+    private void report(HttpServletRequest request, SqlRequestStats stats) {
+        if (stats.getStatements() == 0) {
+            return;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : UNKNOWN_URI;
+        DistributionSummary.builder("sql.request.statements")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(stats.getStatements());
+
+        if (statementBudget > 0 && stats.getStatements() > statementBudget) {
+            meterRegistry.counter("sql.request.budget.exceeded", "method", request.getMethod(), "uri", uri).increment();
+            log.warn("{} {} ran {} (budget {} statements)", request.getMethod(), uri, stats, statementBudget);
+        } else {
+            log.debug("{} {} ran {}", request.getMethod(), uri, stats);
+        }
+
+        for (Map.Entry<String, Integer> execution : stats.getExecutions().entrySet()) {
+            if (execution.getValue() >= repeatedStatementThreshold) {
+                meterRegistry.counter("sql.request.repeated", "method", request.getMethod(), "uri", uri).increment();
+                log.warn("Possible N+1 in {} {}: executed {} times: {}",
+                        request.getMethod(), uri, execution.getValue(), execution.getKey());
+            }
+        }
+    }
+}
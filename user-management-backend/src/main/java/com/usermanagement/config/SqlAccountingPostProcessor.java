@@ -0,0 +1,107 @@
+package com.usermanagement.config;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.util.List;
+
+/**
+ * Wraps the application's data sources in a JDBC proxy that records every statement, its rows
+ * and its execution time into the current {@link SqlRequestStats}. Nothing is recorded on threads
+ * without one. The routing data source is left alone because the proxy on top of it already
+ * sees every statement. Rows read are only counted with {@code app.sql-accounting.count-rows},
+ * which proxies every result set call and is meant for dev and test; otherwise only rows written
+ * are counted.
+ */
+@Component
+@ConditionalOnProperty(name = "app.sql-accounting.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlAccountingPostProcessor implements BeanPostProcessor {
+
+    private static final String STARTED_AT = "sqlAccounting.startedAt";
+
+    private final boolean countRows;
+
+    public SqlAccountingPostProcessor(@Value("${app.sql-accounting.count-rows:false}") boolean countRows) {
+        this.countRows = countRows;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DataSource) || bean instanceof ReplicaRoutingDataSource) {
+            return bean;
+        }
+        StatementListener listener = new StatementListener();
+        ProxyDataSourceBuilder builder = ProxyDataSourceBuilder.create((DataSource) bean)
+                .name(beanName)
+                .listener(listener);
+        if (countRows) {
+            builder.methodListener(listener).proxyResultSet();
+        }
+        return builder.build();
+    }
+
+    private static final class StatementListener implements QueryExecutionListener, MethodExecutionListener {
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            if (SqlRequestStats.current() != null) {
+                execInfo.addCustomValue(STARTED_AT, System.nanoTime());
+            }
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            SqlRequestStats stats = SqlRequestStats.current();
+            Long startedAt = execInfo.getCustomValue(STARTED_AT, Long.class);
+            if (stats == null || startedAt == null) {
+                return;
+            }
+            long elapsedNanos = System.nanoTime() - startedAt;
+            for (QueryInfo query : queryInfoList) {
+                stats.recordStatement(query.getQuery(), elapsedNanos / queryInfoList.size());
+            }
+            stats.recordRows(updateCount(execInfo.getResult()));
+        }
+
+        @Override
+        public void beforeMethod(MethodExecutionContext executionContext) {
+        }
+
+        // Rows read are counted as the result set is consumed
+        @Override
+        public void afterMethod(MethodExecutionContext executionContext) {
+            if (executionContext.getTarget() instanceof ResultSet
+                    && "next".equals(executionContext.getMethod().getName())
+                    && Boolean.TRUE.equals(executionContext.getResult())) {
+                SqlRequestStats stats = SqlRequestStats.current();
+                if (stats != null) {
+                    stats.recordRows(1);
+                }
+            }
+        }
+
+        private static long updateCount(Object result) {
+            if (result instanceof Integer) {
+                return Math.max(0, (Integer) result);
+            }
+            if (result instanceof int[]) {
+                long total = 0;
+                for (int count : (int[]) result) {
+                    total += Math.max(0, count);
+                }
+                return total;
+            }
+            return 0;
+        }
+    }
+}
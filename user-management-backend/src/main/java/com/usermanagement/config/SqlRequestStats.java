@@ -0,0 +1,70 @@
+package com.usermanagement.config;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * SQL executed on behalf of one unit of work, normally one HTTP request. Statements are recorded
+ * by {@link SqlAccountingPostProcessor} on the thread that runs them, so work handed to other
+ * threads (async exports, outbox dispatch) is not attributed to the request.
+ */
+public final class SqlRequestStats {
+
+    public static final String ATTRIBUTE = SqlRequestStats.class.getName();
+
+    private static final ThreadLocal<SqlRequestStats> CURRENT = new ThreadLocal<>();
+
+    private final Map<String, Integer> executions = new HashMap<>();
+    private int statements;
+    private long rows;
+    private long databaseNanos;
+
+    public static SqlRequestStats begin() {
+        SqlRequestStats stats = new SqlRequestStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    public static SqlRequestStats current() {
+        return CURRENT.get();
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    void recordStatement(String sql, long elapsedNanos) {
+        statements++;
+        databaseNanos += elapsedNanos;
+        executions.merge(sql, 1, Integer::sum);
+    }
+
+    void recordRows(long count) {
+        rows += count;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getDatabaseNanos() {
+        return databaseNanos;
+    }
+
+    /**
+     * Execution count per distinct SQL text. Batched executions count once per round trip.
+     */
+    public Map<String, Integer> getExecutions() {
+        return Collections.unmodifiableMap(executions);
+    }
+
+    @Override
+    public String toString() {
+        return statements + " statements, " + rows + " rows, " + databaseNanos / 1_000_000 + " ms";
+    }
+}
@@ -1,19 +1,34 @@
 package com.usermanagement.controller;
 
+import com.usermanagement.config.AuthenticatedUser;
+import com.usermanagement.dto.BulkActionResult;
+import com.usermanagement.dto.BulkImportResult;
+import com.usermanagement.dto.BulkUserActionRequest;
+import com.usermanagement.dto.CursorPage;
 import com.usermanagement.dto.RegisterRequest;
+import com.usermanagement.dto.UserField;
 import com.usermanagement.dto.UserResponse;
 import com.usermanagement.entity.Role;
 import com.usermanagement.service.AuthService;
+import com.usermanagement.service.UserBulkActionService;
+import com.usermanagement.service.UserExportService;
+import com.usermanagement.service.UserImportService;
 import com.usermanagement.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
+import java.io.InputStream;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/admin")
@@ -23,10 +38,40 @@ public class AdminController {
 
     private final UserService userService;
     private final AuthService authService;
+    private final UserExportService userExportService;
+    private final UserImportService userImportService;
+    private final UserBulkActionService userBulkActionService;
 
     @GetMapping("/users")
-    public ResponseEntity<Page<UserResponse>> getAllUsers(Pageable pageable) {
-        return ResponseEntity.ok(userService.getAllUsers(pageable));
+    public ResponseEntity<Page<UserResponse>> getAllUsers(
+            Pageable pageable,
+            @RequestParam(required = false) String fields) {
+        return ResponseEntity.ok(userService.getAllUsers(pageable, UserField.parse(fields)));
+    }
+
+    @GetMapping("/users/scroll")
+    public ResponseEntity<CursorPage<UserResponse>> scrollUsers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String fields) {
+        return ResponseEntity.ok(userService.getUsersAfter(cursor, size, UserField.parse(fields)));
+    }
+
+    @GetMapping("/users/search")
+    public ResponseEntity<List<UserResponse>> searchUsers(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(userService.searchUsers(q, limit));
+    }
+
+    @GetMapping("/users/export")
+    public ResponseEntity<StreamingResponseBody> exportUsers(@RequestParam(defaultValue = "ndjson") String format) {
+        UserExportService.Format exportFormat = UserExportService.Format.parse(format);
+        StreamingResponseBody body = outputStream -> userExportService.export(exportFormat, outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"users." + exportFormat.getExtension() + "\"")
+                .body(body);
     }
 
     @PostMapping("/users")
@@ -35,6 +80,20 @@ public class AdminController {
                 .body(authService.register(request));
     }
 
+    @PostMapping("/users/import")
+    public ResponseEntity<BulkImportResult> importUsers(
+            @RequestParam(defaultValue = "csv") String format,
+            InputStream body) {
+        return ResponseEntity.ok(userImportService.importUsers(UserExportService.Format.parse(format), body));
+    }
+
+    @PostMapping("/users/bulk")
+    public ResponseEntity<BulkActionResult> bulkAction(
+            @AuthenticationPrincipal AuthenticatedUser currentUser,
+            @Valid @RequestBody BulkUserActionRequest request) {
+        return ResponseEntity.ok(userBulkActionService.apply(request, currentUser));
+    }
+
     @PutMapping("/users/{id}/role")
     public ResponseEntity<UserResponse> changeUserRole(
             @PathVariable Long id,
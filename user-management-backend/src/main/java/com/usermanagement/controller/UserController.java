@@ -1,5 +1,8 @@
 package com.usermanagement.controller;
 
+import com.usermanagement.config.AuthenticatedUser;
+import com.usermanagement.dto.CursorPage;
+import com.usermanagement.dto.UserField;
 import com.usermanagement.dto.UserResponse;
 import com.usermanagement.dto.UserUpdateRequest;
 import com.usermanagement.service.UserService;
@@ -9,7 +12,6 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
@@ -22,29 +24,41 @@ public class UserController {
     private final UserService userService;
 
     @GetMapping("/profile")
-    public ResponseEntity<UserResponse> getCurrentUserProfile(@AuthenticationPrincipal UserDetails userDetails) {
-        return ResponseEntity.ok(userService.getUserById(
-                userService.findByEmail(userDetails.getUsername()).getId()));
+    public ResponseEntity<UserResponse> getCurrentUserProfile(
+            @AuthenticationPrincipal AuthenticatedUser currentUser,
+            @RequestParam(required = false) String fields) {
+        return ResponseEntity.ok(userService.getUserById(currentUser.getId(), UserField.parse(fields)));
     }
 
     @PutMapping("/profile")
     public ResponseEntity<UserResponse> updateCurrentUserProfile(
-            @AuthenticationPrincipal UserDetails userDetails,
+            @AuthenticationPrincipal AuthenticatedUser currentUser,
             @Valid @RequestBody UserUpdateRequest request) {
-        return ResponseEntity.ok(userService.updateUser(
-                userService.findByEmail(userDetails.getUsername()).getId(),
-                request));
+        return ResponseEntity.ok(userService.updateUser(currentUser.getId(), request));
     }
 
     @GetMapping
     @PreAuthorize("hasRole('ROLE_ADMIN')")
-    public ResponseEntity<Page<UserResponse>> getAllUsers(Pageable pageable) {
-        return ResponseEntity.ok(userService.getAllUsers(pageable));
+    public ResponseEntity<Page<UserResponse>> getAllUsers(
+            Pageable pageable,
+            @RequestParam(required = false) String fields) {
+        return ResponseEntity.ok(userService.getAllUsers(pageable, UserField.parse(fields)));
+    }
+
+    @GetMapping("/scroll")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<CursorPage<UserResponse>> scrollUsers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String fields) {
+        return ResponseEntity.ok(userService.getUsersAfter(cursor, size, UserField.parse(fields)));
     }
 
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('ROLE_ADMIN')")
-    public ResponseEntity<UserResponse> getUserById(@PathVariable Long id) {
-        return ResponseEntity.ok(userService.getUserById(id));
+    public ResponseEntity<UserResponse> getUserById(
+            @PathVariable Long id,
+            @RequestParam(required = false) String fields) {
+        return ResponseEntity.ok(userService.getUserById(id, UserField.parse(fields)));
     }
 } 
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.usermanagement.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class BulkActionResult {
+    private BulkUserAction action;
+    private long matched;
+    private long affected;
+    private long skipped;
+    private int chunks;
+    private long elapsedMillis;
+}
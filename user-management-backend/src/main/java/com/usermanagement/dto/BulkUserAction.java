@@ -0,0 +1,8 @@
+package com.usermanagement.dto;
+
+public enum BulkUserAction {
+    CHANGE_ROLE,
+    DISABLE,
+    ENABLE,
+    DELETE
+}
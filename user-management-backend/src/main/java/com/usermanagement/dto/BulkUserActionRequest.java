@@ -0,0 +1,36 @@
+package com.usermanagement.dto;
+
+import com.usermanagement.entity.Role;
+import lombok.Data;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+public class BulkUserActionRequest {
+    @NotNull(message = "Action is required")
+    private BulkUserAction action;
+
+    // Target role, required for CHANGE_ROLE
+    private Role role;
+
+    @Size(max = 100000, message = "At most 100000 ids can be given per request")
+    private List<Long> ids;
+
+    @Valid
+    private Filter filter;
+
+    @Data
+    public static class Filter {
+        private Role role;
+        private LocalDateTime createdBefore;
+        private Boolean enabled;
+
+        public boolean isEmpty() {
+            return role == null && createdBefore == null && enabled == null;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.usermanagement.dto;
+
+import com.usermanagement.entity.Role;
+import com.usermanagement.exception.BadRequestException;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * The {@link UserResponse} fields a client can select with {@code fields=}. Each maps to one
+ * {@code User} attribute, so only the selected columns are read.
+ */
+public enum UserField {
+    ID("id", (builder, value) -> builder.id((Long) value)),
+    EMAIL("email", (builder, value) -> builder.email((String) value)),
+    FIRST_NAME("firstName", (builder, value) -> builder.firstName((String) value)),
+    LAST_NAME("lastName", (builder, value) -> builder.lastName((String) value)),
+    ROLE("role", (builder, value) -> builder.role((Role) value)),
+    CREATED_AT("createdAt", (builder, value) -> builder.createdAt((LocalDateTime) value));
+
+    public static final Set<UserField> ALL = Collections.unmodifiableSet(EnumSet.allOf(UserField.class));
+
+    private final String property;
+    private final BiConsumer<UserResponse.UserResponseBuilder, Object> setter;
+
+    UserField(String property, BiConsumer<UserResponse.UserResponseBuilder, Object> setter) {
+        this.property = property;
+        this.setter = setter;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public void apply(UserResponse.UserResponseBuilder builder, Object value) {
+        setter.accept(builder, value);
+    }
+
+    public static Set<UserField> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        Set<UserField> selected = EnumSet.noneOf(UserField.class);
+        for (String name : fields.split(",")) {
+            selected.add(fromProperty(name.trim()));
+        }
+        // "fields=," splits to nothing, and an empty select list is not valid SQL
+        if (selected.isEmpty()) {
+            throw new BadRequestException("At least one field must be selected");
+        }
+        return selected;
+    }
+
+    private static UserField fromProperty(String property) {
+        for (UserField field : values()) {
+            if (field.property.equals(property)) {
+                return field;
+            }
+        }
+        throw new BadRequestException("Unknown field: " + property);
+    }
+}
@@ -1,5 +1,6 @@
 package com.usermanagement.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.usermanagement.entity.Role;
 import lombok.Data;
 import lombok.Builder;
@@ -8,6 +9,7 @@ import java.time.LocalDateTime;
 
 @Data
 @Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class UserResponse {
     private Long id;
     private String email;
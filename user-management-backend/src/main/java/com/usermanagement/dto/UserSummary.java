@@ -0,0 +1,22 @@
+package com.usermanagement.dto;
+
+import com.usermanagement.entity.Role;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of the public user columns, for bulk reads that must not hydrate entities.
+ */
+public interface UserSummary {
+    Long getId();
+
+    String getEmail();
+
+    String getFirstName();
+
+    String getLastName();
+
+    Role getRole();
+
+    LocalDateTime getCreatedAt();
+}
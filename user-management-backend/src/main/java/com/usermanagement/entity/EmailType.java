@@ -0,0 +1,6 @@
+package com.usermanagement.entity;
+
+public enum EmailType {
+    WELCOME,
+    PASSWORD_RESET
+}
@@ -0,0 +1,8 @@
+package com.usermanagement.entity;
+
+public enum OutboxStatus {
+    PENDING,
+    SENDING,
+    SENT,
+    FAILED
+}
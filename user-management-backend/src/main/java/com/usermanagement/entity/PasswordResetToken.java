@@ -10,7 +10,8 @@ import javax.validation.constraints.NotNull;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "password_reset_tokens")
+@Table(name = "password_reset_tokens",
+        indexes = @Index(name = "idx_password_reset_tokens_expiry_date", columnList = "expiryDate"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -23,9 +24,10 @@ public class PasswordResetToken {
     @Column(nullable = false, unique = true)
     private String token;
 
+    // At most one outstanding token per user; forgotPassword replaces it
     @NotNull
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "user_id", nullable = false)
+    @JoinColumn(name = "user_id", nullable = false, unique = true)
     private User user;
 
     @NotNull
@@ -0,0 +1,53 @@
+package com.usermanagement.repository;
+
+import com.usermanagement.entity.EmailOutbox;
+import com.usermanagement.entity.OutboxStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+    boolean existsByDedupKey(String dedupKey);
+
+    // Lock timeout -2 renders FOR UPDATE SKIP LOCKED, so concurrent dispatchers claim disjoint rows
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = "-2"))
+    @Query("select e from EmailOutbox e where (e.status = :pending and e.nextAttemptAt <= :now) "
+            + "or (e.status = :sending and e.lockedUntil < :now) order by e.nextAttemptAt")
+    List<EmailOutbox> findDispatchable(@Param("pending") OutboxStatus pending,
+                                       @Param("sending") OutboxStatus sending,
+                                       @Param("now") LocalDateTime now,
+                                       Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("update EmailOutbox e set e.status = :status, e.sentAt = :sentAt, e.lockedUntil = null, "
+            + "e.lastError = null where e.id = :id")
+    int markSent(@Param("id") Long id, @Param("status") OutboxStatus status, @Param("sentAt") LocalDateTime sentAt);
+
+    @Transactional
+    @Modifying
+    @Query("update EmailOutbox e set e.status = :status, e.nextAttemptAt = :nextAttemptAt, e.lockedUntil = null, "
+            + "e.lastError = :error where e.id = :id")
+    int markFailedAttempt(@Param("id") Long id,
+                          @Param("status") OutboxStatus status,
+                          @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                          @Param("error") String error);
+
+    @Transactional
+    @Modifying
+    @Query("delete from EmailOutbox e where e.status = :status and e.sentAt < :cutoff")
+    int deleteSentBefore(@Param("status") OutboxStatus status, @Param("cutoff") LocalDateTime cutoff);
+}
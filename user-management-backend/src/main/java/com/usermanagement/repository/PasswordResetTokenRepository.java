@@ -2,10 +2,16 @@ package com.usermanagement.repository;
 
 import com.usermanagement.entity.PasswordResetToken;
 import com.usermanagement.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.List;
 
@@ -13,5 +19,19 @@ import java.util.List;
 public interface PasswordResetTokenRepository extends JpaRepository<PasswordResetToken, Long> {
     Optional<PasswordResetToken> findByToken(String token);
     List<PasswordResetToken> findByUser(User user);
-    void deleteByExpiryDateLessThan(LocalDateTime now);
+    Optional<PasswordResetToken> findByUserId(Long userId);
+
+    // Walks idx_password_reset_tokens_expiry_date, so each chunk touches only the rows it removes
+    @Query("select t.id from PasswordResetToken t where t.expiryDate < :now order by t.expiryDate")
+    List<Long> findExpiredIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // Rechecks expiry: forgotPassword may have reissued one of these rows since it was selected
+    @Transactional
+    @Modifying
+    @Query("delete from PasswordResetToken t where t.id in :ids and t.expiryDate < :now")
+    int deleteExpiredByIds(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("delete from PasswordResetToken t where t.user.id in :userIds")
+    int deleteByUserIds(@Param("userIds") Collection<Long> userIds);
 } 
\ No newline at end of file
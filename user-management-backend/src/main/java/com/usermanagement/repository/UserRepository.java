@@ -5,13 +5,57 @@ import com.usermanagement.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
-    Optional<User> findByEmail(String email);
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
     Boolean existsByEmail(String email);
     Page<User> findByRole(Role role, Pageable pageable);
+
+    @Query("select u.email from User u where u.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Query("select u.tokenVersion from User u where u.id = :id")
+    Optional<Integer> findTokenVersionById(@Param("id") Long id);
+
+    // Serializes writes that hang off one user, such as issuing that user's reset token
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select u.id from User u where u.id = :id")
+    Optional<Long> lockById(@Param("id") Long id);
+
+    // Bulk statements bypass the persistence context and @UpdateTimestamp, so updatedAt is set explicitly
+    @Modifying
+    @Query("update User u set u.role = :role, u.tokenVersion = u.tokenVersion + 1, u.updatedAt = :now "
+            + "where u.id in :ids and u.role <> :role")
+    int changeRoles(@Param("ids") Collection<Long> ids, @Param("role") Role role, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("update User u set u.enabled = false, u.tokenVersion = u.tokenVersion + 1, u.updatedAt = :now "
+            + "where u.id in :ids and u.enabled = true")
+    int disableAll(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("update User u set u.enabled = true, u.updatedAt = :now where u.id in :ids and u.enabled = false")
+    int enableAll(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("delete from User u where u.id in :ids")
+    int deleteAllByIds(@Param("ids") Collection<Long> ids);
+
+    @Transactional
+    @Modifying
+    @Query("update User u set u.password = :password where u.id = :id")
+    int updatePassword(@Param("id") Long id, @Param("password") String password);
 } 
\ No newline at end of file
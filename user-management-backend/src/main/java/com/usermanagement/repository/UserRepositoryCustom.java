@@ -0,0 +1,38 @@
+package com.usermanagement.repository;
+
+import com.usermanagement.dto.BulkUserActionRequest;
+import com.usermanagement.dto.UserField;
+import com.usermanagement.dto.UserResponse;
+import com.usermanagement.dto.UserSummary;
+import com.usermanagement.entity.User;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+public interface UserRepositoryCustom {
+    Optional<User> findByEmail(String email);
+
+    Optional<User> findByEmailBypassingCache(String email);
+
+    Optional<User> findByIdBypassingCache(Long id);
+
+    Page<UserResponse> findAllProjected(Set<UserField> fields, Pageable pageable);
+
+    List<UserResponse> findProjectedAfter(Set<UserField> fields, long afterId, int limit);
+
+    Optional<UserResponse> findProjectedById(Set<UserField> fields, Long id);
+
+    Stream<UserSummary> streamAllSummaries();
+
+    /**
+     * Selects the next chunk of bulk action targets and locks their rows until the surrounding
+     * transaction ends.
+     */
+    Map<Long, String> lockEmailsAfter(BulkUserActionRequest.Filter filter, Collection<Long> ids, long afterId, int limit);
+}
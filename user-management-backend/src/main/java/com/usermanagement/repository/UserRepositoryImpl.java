@@ -0,0 +1,222 @@
+package com.usermanagement.repository;
+
+import com.usermanagement.dto.BulkUserActionRequest;
+import com.usermanagement.dto.UserField;
+import com.usermanagement.dto.UserResponse;
+import com.usermanagement.dto.UserSummary;
+import com.usermanagement.entity.Role;
+import com.usermanagement.entity.User;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.hibernate.Session;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.CacheRetrieveMode;
+import javax.persistence.CacheStoreMode;
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Column-level projections of {@link User}. Queries select only the requested attributes as
+ * tuples, so no entities are hydrated or snapshotted for dirty checking.
+ */
+public class UserRepositoryImpl implements UserRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Integer.MIN_VALUE makes MySQL Connector/J stream rows one at a time instead of buffering the
+    // result; drivers that reject negative sizes (H2 in tests) take a positive batch size instead
+    @Value("${app.export.fetch-size:" + Integer.MIN_VALUE + "}")
+    private int streamFetchSize;
+
+    // Resolved through the natural id cache and then the entity cache, so a warm lookup runs no SQL
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<User> findByEmail(String email) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(User.class)
+                .loadOptional(email);
+    }
+
+    // Credentials and the enabled flag can be changed on another instance, whose writes this
+    // instance's cache only sees once the entry expires; the row read here also refreshes the cache
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<User> findByEmailBypassingCache(String email) {
+        return entityManager.createQuery("select u from User u where u.email = :email", User.class)
+                .setParameter("email", email)
+                .setHint("javax.persistence.cache.retrieveMode", CacheRetrieveMode.BYPASS)
+                .setHint("javax.persistence.cache.storeMode", CacheStoreMode.REFRESH)
+                .getResultStream()
+                .findFirst();
+    }
+
+    // For password resets, which must see the current hash and token version
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<User> findByIdBypassingCache(Long id) {
+        return entityManager.createQuery("select u from User u where u.id = :id", User.class)
+                .setParameter("id", id)
+                .setHint("javax.persistence.cache.retrieveMode", CacheRetrieveMode.BYPASS)
+                .setHint("javax.persistence.cache.storeMode", CacheStoreMode.REFRESH)
+                .getResultStream()
+                .findFirst();
+    }
+
+    @Override
+    public Page<UserResponse> findAllProjected(Set<UserField> fields, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<User> root = query.from(User.class);
+        query.multiselect(selections(root, fields));
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+
+        List<UserResponse> content = toResponses(typedQuery.getResultList(), fields);
+        return PageableExecutionUtils.getPage(content, pageable, this::count);
+    }
+
+    // Always includes the id, which callers need to build the next cursor
+    @Override
+    public List<UserResponse> findProjectedAfter(Set<UserField> fields, long afterId, int limit) {
+        Set<UserField> selected = EnumSet.copyOf(fields);
+        selected.add(UserField.ID);
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<User> root = query.from(User.class);
+        query.multiselect(selections(root, selected))
+                .where(cb.greaterThan(root.get("id"), afterId))
+                .orderBy(cb.asc(root.get("id")));
+
+        return toResponses(entityManager.createQuery(query).setMaxResults(limit).getResultList(), selected);
+    }
+
+    @Override
+    public Optional<UserResponse> findProjectedById(Set<UserField> fields, Long id) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<User> root = query.from(User.class);
+        query.multiselect(selections(root, fields))
+                .where(cb.equal(root.get("id"), id));
+
+        return toResponses(entityManager.createQuery(query).getResultList(), fields).stream().findFirst();
+    }
+
+    @Override
+    public Stream<UserSummary> streamAllSummaries() {
+        return entityManager.createQuery("select u.id, u.email, u.firstName, u.lastName, u.role, u.createdAt "
+                        + "from User u order by u.id", Tuple.class)
+                .setHint(QueryHints.HINT_FETCH_SIZE, streamFetchSize)
+                .setHint(QueryHints.HINT_READONLY, true)
+                .getResultStream()
+                .map(tuple -> new Summary(tuple.get(0, Long.class), tuple.get(1, String.class),
+                        tuple.get(2, String.class), tuple.get(3, String.class), tuple.get(4, Role.class),
+                        tuple.get(5, LocalDateTime.class)));
+    }
+
+    // Id to email, in id order; either filter or ids may be null
+    @Override
+    public Map<Long, String> lockEmailsAfter(BulkUserActionRequest.Filter filter, Collection<Long> ids,
+                                             long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<User> root = query.from(User.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.greaterThan(root.get("id"), afterId));
+        if (ids != null) {
+            predicates.add(root.get("id").in(ids));
+        }
+        if (filter != null && filter.getRole() != null) {
+            predicates.add(cb.equal(root.get("role"), filter.getRole()));
+        }
+        if (filter != null && filter.getCreatedBefore() != null) {
+            predicates.add(cb.lessThan(root.<LocalDateTime>get("createdAt"), filter.getCreatedBefore()));
+        }
+        if (filter != null && filter.getEnabled() != null) {
+            predicates.add(cb.equal(root.get("enabled"), filter.getEnabled()));
+        }
+        query.multiselect(root.get("id"), root.get("email"))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.asc(root.get("id")));
+
+        Map<Long, String> emails = new LinkedHashMap<>();
+        List<Tuple> rows = entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultList();
+        for (Tuple tuple : rows) {
+            emails.put(tuple.get(0, Long.class), tuple.get(1, String.class));
+        }
+        return emails;
+    }
+
+    private long count() {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        query.select(cb.count(query.from(User.class)));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static List<Selection<?>> selections(Root<User> root, Set<UserField> fields) {
+        List<Selection<?>> selections = new ArrayList<>(fields.size());
+        for (UserField field : fields) {
+            selections.add(root.get(field.getProperty()).alias(field.getProperty()));
+        }
+        return selections;
+    }
+
+    private static List<UserResponse> toResponses(List<Tuple> tuples, Set<UserField> fields) {
+        List<UserResponse> responses = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            UserResponse.UserResponseBuilder builder = UserResponse.builder();
+            for (UserField field : fields) {
+                field.apply(builder, tuple.get(field.getProperty()));
+            }
+            responses.add(builder.build());
+        }
+        return responses;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static final class Summary implements UserSummary {
+        private final Long id;
+        private final String email;
+        private final String firstName;
+        private final String lastName;
+        private final Role role;
+        private final LocalDateTime createdAt;
+    }
+}
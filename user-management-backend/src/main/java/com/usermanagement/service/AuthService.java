@@ -1,6 +1,8 @@
 package com.usermanagement.service;
 
+import com.usermanagement.config.ServerTiming;
 import com.usermanagement.dto.*;
+import com.usermanagement.entity.EmailType;
 import com.usermanagement.entity.PasswordResetToken;
 import com.usermanagement.entity.Role;
 import com.usermanagement.entity.User;
@@ -8,13 +10,15 @@ import com.usermanagement.exception.ResourceNotFoundException;
 import com.usermanagement.repository.PasswordResetTokenRepository;
 import com.usermanagement.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
@@ -25,8 +29,17 @@ public class AuthService {
     private final PasswordResetTokenRepository passwordResetTokenRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
-    private final AuthenticationManager authenticationManager;
-    private final EmailService emailService;
+    private final EmailOutboxService emailOutboxService;
+    private final TokenRevocationService tokenRevocationService;
+    private final UserDetailsCache userDetailsCache;
+    private final SignedResetTokenService signedResetTokenService;
+    private final UserSearchIndex userSearchIndex;
+
+    // "table" stores reset tokens in password_reset_tokens, "stateless" issues signed tokens
+    @Value("${app.password-reset.mode:table}")
+    private String passwordResetMode;
+
+    private volatile String userNotFoundPasswordHash;
 
     @Transactional
     public UserResponse register(RegisterRequest request) {
@@ -43,7 +56,9 @@ public class AuthService {
         user.setCreatedAt(LocalDateTime.now());
 
         User savedUser = userRepository.save(user);
-        emailService.sendWelcomeEmail(user.getEmail(), user.getFirstName());
+        userSearchIndex.upsert(savedUser);
+        emailOutboxService.enqueue(EmailType.WELCOME, savedUser.getEmail(),
+                Map.of("name", savedUser.getFirstName()), "welcome:" + savedUser.getId());
 
         return UserResponse.builder()
                 .id(savedUser.getId())
@@ -55,14 +70,29 @@ public class AuthService {
                 .build();
     }
 
-    @Transactional
+    // Deliberately not transactional: the only connection use is the lookup, never the hash check.
+    // The lookup skips the second-level cache so a password change or disable on another instance applies at once
     public LoginResponse login(LoginRequest request) {
-        authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword())
-        );
-
-        User user = userRepository.findByEmail(request.getEmail())
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        long timingStartedAt = ServerTiming.start();
+        User user = userRepository.findByEmailBypassingCache(request.getEmail()).orElse(null);
+        ServerTiming.stop(ServerTiming.Phase.USER, timingStartedAt);
+
+        if (user == null) {
+            // Spend the same hashing time as a real check so unknown emails are not distinguishable
+            passwordEncoder.matches(request.getPassword(), userNotFoundPasswordHash());
+            throw new BadCredentialsException("Bad credentials");
+        }
+        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+            throw new BadCredentialsException("Bad credentials");
+        }
+        if (!user.isEnabled()) {
+            throw new DisabledException("User is disabled");
+        }
+        // The only place an outdated hash is upgraded; login never goes through an AuthenticationManager
+        if (passwordEncoder.upgradeEncoding(user.getPassword())) {
+            userRepository.updatePassword(user.getId(), passwordEncoder.encode(request.getPassword()));
+            userDetailsCache.evict(user.getEmail());
+        }
 
         String token = jwtService.generateToken(user);
 
@@ -76,24 +106,43 @@ public class AuthService {
                 .build();
     }
 
+    // Reset tokens are bound to the current hash, so the user is read around the second-level cache
     @Transactional
     public void forgotPassword(ForgotPasswordRequest request) {
-        User user = userRepository.findByEmail(request.getEmail())
+        User user = userRepository.findByEmailBypassingCache(request.getEmail())
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
+        String token = "stateless".equalsIgnoreCase(passwordResetMode)
+                ? signedResetTokenService.issue(user)
+                : issueStoredResetToken(user);
+        emailOutboxService.enqueue(EmailType.PASSWORD_RESET, user.getEmail(),
+                Map.of("token", token), "password-reset:" + token);
+    }
+
+    private String issueStoredResetToken(User user) {
         String token = UUID.randomUUID().toString();
-        
-        PasswordResetToken resetToken = new PasswordResetToken();
+
+        // Reuse the user's outstanding token row, so repeated requests never add rows. The user row
+        // lock makes concurrent requests take turns, so two of them cannot both insert a row.
+        userRepository.lockById(user.getId());
+        PasswordResetToken resetToken = passwordResetTokenRepository.findByUserId(user.getId())
+                .orElseGet(PasswordResetToken::new);
         resetToken.setToken(token);
         resetToken.setUser(user);
         resetToken.setExpiryDate(LocalDateTime.now().plusHours(24));
-        
+
         passwordResetTokenRepository.save(resetToken);
-        emailService.sendPasswordResetEmail(user.getEmail(), token);
+        return token;
     }
 
+    // Both token formats are accepted regardless of mode, so switching modes does not break links already sent
     @Transactional
     public void resetPassword(ResetPasswordRequest request) {
+        if (SignedResetTokenService.isSignedToken(request.getToken())) {
+            resetPasswordWithSignedToken(request);
+            return;
+        }
+
         PasswordResetToken resetToken = passwordResetTokenRepository.findByToken(request.getToken())
                 .orElseThrow(() -> new ResourceNotFoundException("Invalid or expired password reset token"));
 
@@ -102,10 +151,39 @@ public class AuthService {
             throw new IllegalArgumentException("Password reset token has expired");
         }
 
-        User user = resetToken.getUser();
-        user.setPassword(passwordEncoder.encode(request.getNewPassword()));
-        userRepository.save(user);
-        
+        User user = userRepository.findByIdBypassingCache(resetToken.getUser().getId())
+                .orElseThrow(() -> new ResourceNotFoundException("Invalid or expired password reset token"));
+        changePassword(user, request.getNewPassword());
         passwordResetTokenRepository.delete(resetToken);
     }
-} 
\ No newline at end of file
+
+    private void resetPasswordWithSignedToken(ResetPasswordRequest request) {
+        SignedResetTokenService.ParsedToken token = signedResetTokenService.parse(request.getToken())
+                .orElseThrow(() -> new ResourceNotFoundException("Invalid or expired password reset token"));
+        if (token.isExpired()) {
+            throw new IllegalArgumentException("Password reset token has expired");
+        }
+
+        // A cached hash could still accept a link already used on another instance
+        User user = userRepository.findByIdBypassingCache(token.getUserId())
+                .filter(candidate -> signedResetTokenService.verify(token, candidate))
+                .orElseThrow(() -> new ResourceNotFoundException("Invalid or expired password reset token"));
+        changePassword(user, request.getNewPassword());
+    }
+
+    private void changePassword(User user, String newPassword) {
+        user.setPassword(passwordEncoder.encode(newPassword));
+        tokenRevocationService.revokeTokens(user);
+        userRepository.save(user);
+        userDetailsCache.evict(user.getEmail());
+    }
+
+    private String userNotFoundPasswordHash() {
+        String hash = userNotFoundPasswordHash;
+        if (hash == null) {
+            hash = passwordEncoder.encode("userNotFoundPassword");
+            userNotFoundPasswordHash = hash;
+        }
+        return hash;
+    }
+}
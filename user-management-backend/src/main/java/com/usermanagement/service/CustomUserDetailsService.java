@@ -1,39 +1,38 @@
 package com.usermanagement.service;
 
-import com.usermanagement.entity.User;
+import com.usermanagement.config.AuthenticatedUser;
+import com.usermanagement.config.ServerTiming;
 import com.usermanagement.repository.UserRepository;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-
-import java.util.Collections;
 
 @Service
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final UserDetailsCache userDetailsCache;
 
-    public CustomUserDetailsService(UserRepository userRepository) {
+    public CustomUserDetailsService(UserRepository userRepository, UserDetailsCache userDetailsCache) {
         this.userRepository = userRepository;
+        this.userDetailsCache = userDetailsCache;
     }
 
     @Override
-    @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
+        long timingStartedAt = ServerTiming.start();
+        AuthenticatedUser user = userDetailsCache.get(email, this::loadUser);
+        ServerTiming.stop(ServerTiming.Phase.USER, timingStartedAt);
+        if (user == null) {
+            throw new UsernameNotFoundException("User not found with email: " + email);
+        }
+        return user;
+    }
 
-        return new org.springframework.security.core.userdetails.User(
-                user.getEmail(),
-                user.getPassword(),
-                user.isEnabled(),
-                true, // accountNonExpired
-                true, // credentialsNonExpired
-                true, // accountNonLocked
-                Collections.singletonList(new SimpleGrantedAuthority(user.getRole().name()))
-        );
+    private AuthenticatedUser loadUser(String email) {
+        return userRepository.findByEmail(email)
+                .map(AuthenticatedUser::fromUser)
+                .orElse(null);
     }
 } 
\ No newline at end of file
@@ -0,0 +1,194 @@
+package com.usermanagement.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.usermanagement.entity.EmailOutbox;
+import com.usermanagement.entity.OutboxStatus;
+import com.usermanagement.repository.EmailOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drains the email outbox in batches. A batch is claimed with {@code SKIP LOCKED} and leased by
+ * moving it to {@code SENDING}, then sent on a bounded worker pool outside any transaction.
+ * Failures are retried with exponential backoff until the attempt limit is reached. Rows whose
+ * lease expires, e.g. because the instance stopped mid-send, are claimed again, so delivery is
+ * at-least-once.
+ */
+@Slf4j
+@Component
+public class EmailOutboxDispatcher {
+
+    private static final TypeReference<Map<String, String>> VARIABLES = new TypeReference<>() {
+    };
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final EmailService emailService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService workers;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration lease;
+    private final Duration retention;
+    private final Counter sent;
+    private final Counter retried;
+    private final Counter failed;
+
+    public EmailOutboxDispatcher(EmailOutboxRepository emailOutboxRepository,
+                                 EmailService emailService,
+                                 ObjectMapper objectMapper,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.email.outbox.workers:4}") int workers,
+                                 @Value("${app.email.outbox.batch-size:50}") int batchSize,
+                                 @Value("${app.email.outbox.max-attempts:8}") int maxAttempts,
+                                 @Value("${app.email.outbox.initial-backoff:30s}") Duration initialBackoff,
+                                 @Value("${app.email.outbox.max-backoff:1h}") Duration maxBackoff,
+                                 @Value("${app.email.outbox.lease:5m}") Duration lease,
+                                 @Value("${app.email.outbox.retention:7d}") Duration retention) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.emailService = emailService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "email-outbox-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.workers = executor;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.lease = lease;
+        this.retention = retention;
+
+        new ExecutorServiceMetrics(executor, "emailOutbox", Tags.empty()).bindTo(meterRegistry);
+        this.sent = outcomeCounter(meterRegistry, "sent");
+        this.retried = outcomeCounter(meterRegistry, "retried");
+        this.failed = outcomeCounter(meterRegistry, "failed");
+    }
+
+    @Scheduled(fixedDelayString = "${app.email.outbox.poll-interval:PT1S}",
+            initialDelayString = "${app.email.outbox.poll-interval:PT1S}")
+    public void dispatch() {
+        List<EmailOutbox> batch;
+        do {
+            batch = claimBatch();
+            if (!batch.isEmpty()) {
+                send(batch);
+            }
+        } while (batch.size() == batchSize);
+    }
+
+    @Scheduled(cron = "${app.email.outbox.cleanup-cron:0 30 3 * * *}")
+    public void deleteSent() {
+        int deleted = emailOutboxRepository.deleteSentBefore(OutboxStatus.SENT, LocalDateTime.now().minus(retention));
+        if (deleted > 0) {
+            log.info("Deleted {} sent emails from the outbox", deleted);
+        }
+    }
+
+    private List<EmailOutbox> claimBatch() {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<EmailOutbox> batch = emailOutboxRepository.findDispatchable(
+                    OutboxStatus.PENDING, OutboxStatus.SENDING, now, PageRequest.of(0, batchSize));
+            for (EmailOutbox email : batch) {
+                email.setStatus(OutboxStatus.SENDING);
+                email.setLockedUntil(now.plus(lease));
+                email.setAttempts(email.getAttempts() + 1);
+            }
+            return batch;
+        });
+    }
+
+    private void send(List<EmailOutbox> batch) {
+        List<Callable<Void>> tasks = new ArrayList<>(batch.size());
+        for (EmailOutbox email : batch) {
+            tasks.add(() -> {
+                sendOne(email);
+                return null;
+            });
+        }
+        try {
+            workers.invokeAll(tasks);
+        } catch (InterruptedException e) {
+            // Unfinished rows keep their lease and are picked up again once it expires
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void sendOne(EmailOutbox email) {
+        try {
+            Map<String, String> variables = objectMapper.readValue(email.getPayload(), VARIABLES);
+            emailService.send(email.getType(), email.getRecipient(), variables);
+            emailOutboxRepository.markSent(email.getId(), OutboxStatus.SENT, LocalDateTime.now());
+            sent.increment();
+        } catch (Exception e) {
+            String error = truncate(e.getClass().getSimpleName() + ": " + e.getMessage());
+            if (email.getAttempts() >= maxAttempts) {
+                log.error("Giving up on email {} to {} after {} attempts: {}",
+                        email.getId(), email.getRecipient(), email.getAttempts(), error);
+                emailOutboxRepository.markFailedAttempt(email.getId(), OutboxStatus.FAILED, LocalDateTime.now(), error);
+                failed.increment();
+            } else {
+                log.warn("Email {} attempt {} failed, retrying: {}", email.getId(), email.getAttempts(), error);
+                emailOutboxRepository.markFailedAttempt(email.getId(), OutboxStatus.PENDING,
+                        LocalDateTime.now().plus(backoff(email.getAttempts())), error);
+                retried.increment();
+            }
+        }
+    }
+
+    // Exponential backoff with up to 20% jitter so a mail server outage does not produce retry waves
+    private Duration backoff(int attempts) {
+        long exponent = Math.min(attempts - 1, 30);
+        long millis = Math.min(maxBackoff.toMillis(), initialBackoff.toMillis() << exponent);
+        return Duration.ofMillis(millis + ThreadLocalRandom.current().nextLong(millis / 5 + 1));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    private static String truncate(String error) {
+        return error.length() <= 1000 ? error : error.substring(0, 1000);
+    }
+
+    private static Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("email.outbox.dispatch")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
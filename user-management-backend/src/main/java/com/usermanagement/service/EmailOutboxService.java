@@ -0,0 +1,63 @@
+package com.usermanagement.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.usermanagement.config.ServerTiming;
+import com.usermanagement.entity.EmailOutbox;
+import com.usermanagement.entity.EmailType;
+import com.usermanagement.entity.OutboxStatus;
+import com.usermanagement.repository.EmailOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Records outgoing emails in the outbox table as part of the caller's transaction, so an email
+ * exists exactly when the change that triggered it commits. {@link EmailOutboxDispatcher} sends
+ * them afterwards.
+ */
+@Service
+@RequiredArgsConstructor
+public class EmailOutboxService {
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(EmailType type, String recipient, Map<String, String> variables, String dedupKey) {
+        long timingStartedAt = ServerTiming.start();
+        try {
+            enqueueOnce(type, recipient, variables, dedupKey);
+        } finally {
+            ServerTiming.stop(ServerTiming.Phase.MAIL, timingStartedAt);
+        }
+    }
+
+    private void enqueueOnce(EmailType type, String recipient, Map<String, String> variables, String dedupKey) {
+        if (emailOutboxRepository.existsByDedupKey(dedupKey)) {
+            return;
+        }
+
+        EmailOutbox email = new EmailOutbox();
+        email.setType(type);
+        email.setRecipient(recipient);
+        email.setPayload(toJson(variables));
+        email.setStatus(OutboxStatus.PENDING);
+        email.setNextAttemptAt(LocalDateTime.now());
+        email.setDedupKey(dedupKey);
+        email.setCreatedAt(LocalDateTime.now());
+        emailOutboxRepository.save(email);
+    }
+
+    private String toJson(Map<String, String> variables) {
+        try {
+            return objectMapper.writeValueAsString(variables);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize email variables", e);
+        }
+    }
+}
@@ -1,22 +1,31 @@
 package com.usermanagement.service;
 
+import com.usermanagement.config.SmtpTransportPool;
+import com.usermanagement.entity.EmailType;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.thymeleaf.TemplateEngine;
-import org.thymeleaf.context.Context;
 
 import javax.mail.MessagingException;
 import javax.mail.internet.MimeMessage;
 import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class EmailService {
 
     private final JavaMailSender mailSender;
-    private final TemplateEngine templateEngine;
+    private final SmtpTransportPool transportPool;
+    private final PrecompiledEmailTemplate passwordResetTemplate;
+    private final PrecompiledEmailTemplate welcomeTemplate;
+    private final Map<EmailType, Timer> sendTimers = new EnumMap<>(EmailType.class);
 
     @Value("${spring.mail.username}")
     private String fromEmail;
@@ -24,53 +33,69 @@ public class EmailService {
     @Value("${app.frontend-url}")
     private String frontendUrl;
 
-    public EmailService(JavaMailSender mailSender, TemplateEngine templateEngine) {
+    public EmailService(JavaMailSender mailSender, TemplateEngine templateEngine, SmtpTransportPool transportPool,
+                        MeterRegistry meterRegistry) {
         this.mailSender = mailSender;
-        this.templateEngine = templateEngine;
+        this.transportPool = transportPool;
+        // Parsed and rendered once here; sending only substitutes the variables
+        this.passwordResetTemplate = PrecompiledEmailTemplate.compile(
+                templateEngine, "password-reset-template", Set.of("resetLink"));
+        this.welcomeTemplate = PrecompiledEmailTemplate.compile(
+                templateEngine, "welcome-template", Set.of("name", "loginLink"));
+        for (EmailType type : EmailType.values()) {
+            sendTimers.put(type, Timer.builder("email.send")
+                    .tag("type", type.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+        }
+    }
+
+    // Called by the outbox dispatcher; request threads enqueue through EmailOutboxService instead
+    public void send(EmailType type, String recipient, Map<String, String> variables) {
+        sendTimers.get(type).record(() -> sendNow(type, recipient, variables));
+    }
+
+    private void sendNow(EmailType type, String recipient, Map<String, String> variables) {
+        switch (type) {
+            case WELCOME:
+                sendWelcomeEmail(recipient, variables.get("name"));
+                break;
+            case PASSWORD_RESET:
+                sendPasswordResetEmail(recipient, variables.get("token"));
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported email type: " + type);
+        }
     }
 
-    @Async
     public void sendPasswordResetEmail(String email, String token) {
         try {
-            Context context = new Context();
-            context.setVariable("resetLink", frontendUrl + "/reset-password?token=" + token);
-            
-            String emailContent = templateEngine.process("password-reset-template", context);
-            
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, StandardCharsets.UTF_8.name());
-            
-            helper.setFrom(fromEmail);
-            helper.setTo(email);
-            helper.setSubject("Password Reset Request");
-            helper.setText(emailContent, true);
-            
-            mailSender.send(message);
+            String emailContent = passwordResetTemplate.render(
+                    Map.of("resetLink", frontendUrl + "/reset-password?token=" + token));
+            send(email, "Password Reset Request", emailContent);
         } catch (MessagingException e) {
             throw new RuntimeException("Failed to send password reset email", e);
         }
     }
 
-    @Async
     public void sendWelcomeEmail(String email, String name) {
         try {
-            Context context = new Context();
-            context.setVariable("name", name);
-            context.setVariable("loginLink", frontendUrl + "/login");
-            
-            String emailContent = templateEngine.process("welcome-template", context);
-            
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, StandardCharsets.UTF_8.name());
-            
-            helper.setFrom(fromEmail);
-            helper.setTo(email);
-            helper.setSubject("Welcome to Our Platform");
-            helper.setText(emailContent, true);
-            
-            mailSender.send(message);
+            String emailContent = welcomeTemplate.render(
+                    Map.of("name", name, "loginLink", frontendUrl + "/login"));
+            send(email, "Welcome to Our Platform", emailContent);
         } catch (MessagingException e) {
             throw new RuntimeException("Failed to send welcome email", e);
         }
     }
-} 
\ No newline at end of file
+
+    private void send(String email, String subject, String emailContent) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, StandardCharsets.UTF_8.name());
+
+        helper.setFrom(fromEmail);
+        helper.setTo(email);
+        helper.setSubject(subject);
+        helper.setText(emailContent, true);
+
+        transportPool.send(message);
+    }
+}
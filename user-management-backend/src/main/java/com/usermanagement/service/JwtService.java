@@ -3,83 +3,123 @@ package com.usermanagement.service;
 import com.usermanagement.entity.Role;
 import com.usermanagement.entity.User;
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.SignatureException;
+import io.jsonwebtoken.io.Deserializer;
+import io.jsonwebtoken.io.Serializer;
+import io.jsonwebtoken.jackson.io.JacksonDeserializer;
+import io.jsonwebtoken.jackson.io.JacksonSerializer;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.Map;
-import java.util.function.Function;
 
+/**
+ * Issues and verifies access tokens. The signing key, parser and JSON codecs are built once and
+ * shared, so signing and verifying do no key derivation or service lookups per call.
+ *
+ * <p>Token schema: {@code sub} (email), {@code id}, {@code role}, {@code ver} (token version),
+ * {@code iat}, {@code exp}.
+ */
 @Service
 public class JwtService {
-    @Value("${jwt.secret}")
-    private String secret;
 
-    @Value("${jwt.expiration}")
-    private Long expiration;
+    public static final String CLAIM_ID = "id";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_VERSION = "ver";
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+    private final Serializer<Map<String, ?>> serializer = new JacksonSerializer<>();
+    private final long expiration;
+    private final Timer signTimer;
+    private final Timer verifyTimer;
+
+    public JwtService(@Value("${jwt.secret}") String secret,
+                      @Value("${jwt.expiration}") long expiration,
+                      MeterRegistry meterRegistry) {
+        this.signingKey = Keys.hmacShaKeyFor(deriveKey(secret));
+        Deserializer<Map<String, ?>> deserializer = new JacksonDeserializer<>();
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .deserializeJsonWith(deserializer)
+                .build();
+        this.expiration = expiration;
+        this.signTimer = tokenTimer(meterRegistry, "sign");
+        this.verifyTimer = tokenTimer(meterRegistry, "verify");
+    }
 
     public String generateToken(User user) {
-        Map<String, Object> claims = new HashMap<>();
-        claims.put("id", user.getId());
-        claims.put("role", user.getRole().name());
-        claims.put("email", user.getEmail());
-        return createToken(claims, user.getEmail());
+        return signTimer.record(() -> {
+            long now = System.currentTimeMillis();
+            return Jwts.builder()
+                    .serializeToJsonWith(serializer)
+                    .setSubject(user.getEmail())
+                    .claim(CLAIM_ID, user.getId())
+                    .claim(CLAIM_ROLE, user.getRole().name())
+                    .claim(CLAIM_VERSION, user.getTokenVersion())
+                    .setIssuedAt(new Date(now))
+                    .setExpiration(new Date(now + expiration))
+                    .signWith(signingKey, SignatureAlgorithm.HS512)
+                    .compact();
+        });
+    }
+
+    // Failed verifications are recorded too; they throw out of the timed block
+    public Claims parseToken(String token) {
+        return verifyTimer.record(() -> parser.parseClaimsJws(token).getBody());
     }
 
     public boolean validateToken(String token) {
         try {
-            Jwts.parser().setSigningKey(secret).parseClaimsJws(token);
-            return !isTokenExpired(token);
-        } catch (SignatureException | ExpiredJwtException e) {
+            parseToken(token);
+            return true;
+        } catch (JwtException | IllegalArgumentException e) {
             return false;
         }
     }
 
     public User getUserFromToken(String token) {
-        Claims claims = extractAllClaims(token);
+        Claims claims = parseToken(token);
         User user = new User();
-        user.setId(claims.get("id", Long.class));
+        user.setId(claims.get(CLAIM_ID, Long.class));
         user.setEmail(claims.getSubject());
-        user.setRole(Role.valueOf(claims.get("role", String.class)));
+        user.setRole(Role.valueOf(claims.get(CLAIM_ROLE, String.class)));
+        user.setTokenVersion(claims.get(CLAIM_VERSION, Integer.class));
         return user;
     }
 
-    private String createToken(Map<String, Object> claims, String subject) {
-        return Jwts.builder()
-                .setClaims(claims)
-                .setSubject(subject)
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + expiration * 1000))
-                .signWith(SignatureAlgorithm.HS512, secret)
-                .compact();
-    }
-
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
-    }
-
-    private <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
-    }
-
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser().setSigningKey(secret).parseClaimsJws(token).getBody();
+    public String extractTokenFromRequest(String authorizationHeader) {
+        if (authorizationHeader != null && authorizationHeader.startsWith(BEARER_PREFIX)) {
+            return authorizationHeader.substring(BEARER_PREFIX.length());
+        }
+        return null;
     }
 
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    // HS512 needs a 512-bit key; hashing the configured secret gives exactly that for any length
+    private static byte[] deriveKey(String secret) {
+        try {
+            return MessageDigest.getInstance("SHA-512").digest(secret.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-512 is not available", e);
+        }
     }
 
-    public String extractTokenFromRequest(String authorizationHeader) {
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            return authorizationHeader.substring(7);
-        }
-        return null;
+    private static Timer tokenTimer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("jwt.token")
+                .tag("operation", operation)
+                .register(meterRegistry);
     }
-} 
\ No newline at end of file
+}
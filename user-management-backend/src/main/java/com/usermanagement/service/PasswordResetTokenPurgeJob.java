@@ -0,0 +1,70 @@
+package com.usermanagement.service;
+
+import com.usermanagement.repository.PasswordResetTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Removes expired password reset tokens in small chunks. Each chunk selects ids through the
+ * expiry index and deletes them by primary key in its own transaction, so row locks are held only
+ * briefly and concurrent resets are not blocked behind one large delete. The delete repeats the
+ * expiry condition, so a row that was reissued with a fresh token in between is kept.
+ */
+@Slf4j
+@Component
+public class PasswordResetTokenPurgeJob {
+
+    private final PasswordResetTokenRepository passwordResetTokenRepository;
+    private final int chunkSize;
+    private final Duration pause;
+    private final Timer runTimer;
+    private final Counter purged;
+
+    public PasswordResetTokenPurgeJob(PasswordResetTokenRepository passwordResetTokenRepository,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${app.password-reset.purge.chunk-size:500}") int chunkSize,
+                                      @Value("${app.password-reset.purge.pause:50ms}") Duration pause) {
+        this.passwordResetTokenRepository = passwordResetTokenRepository;
+        this.chunkSize = chunkSize;
+        this.pause = pause;
+        this.runTimer = Timer.builder("password.reset.tokens.purge").register(meterRegistry);
+        this.purged = Counter.builder("password.reset.tokens.purged").register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${app.password-reset.purge.cron:0 */15 * * * *}")
+    public void purgeExpired() {
+        long startedAt = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        long deleted = 0;
+        try {
+            List<Long> ids;
+            do {
+                ids = passwordResetTokenRepository.findExpiredIds(now, PageRequest.of(0, chunkSize));
+                if (!ids.isEmpty()) {
+                    int removed = passwordResetTokenRepository.deleteExpiredByIds(ids, now);
+                    deleted += removed;
+                    purged.increment(removed);
+                    Thread.sleep(pause.toMillis());
+                }
+            } while (ids.size() == chunkSize);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - startedAt);
+            runTimer.record(elapsed);
+            if (deleted > 0) {
+                log.info("Purged {} expired password reset tokens in {} ms", deleted, elapsed.toMillis());
+            }
+        }
+    }
+}
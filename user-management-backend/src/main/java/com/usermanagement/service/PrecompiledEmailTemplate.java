@@ -0,0 +1,74 @@
+package com.usermanagement.service;
+
+import org.springframework.web.util.HtmlUtils;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A Thymeleaf email template rendered once with placeholder values and split into literal text
+ * and variable slots. Rendering a message only concatenates the literals with the HTML-escaped
+ * values, which is what Thymeleaf produces for {@code th:text} and {@code th:href} expressions.
+ * Templates must therefore print their variables as-is, without conditionals or iteration over
+ * them; {@link #compile} fails if a variable does not come through verbatim.
+ */
+public final class PrecompiledEmailTemplate {
+
+    private static final String PLACEHOLDER_PREFIX = "@@var:";
+    private static final String PLACEHOLDER_SUFFIX = "@@";
+    private static final Pattern PLACEHOLDER = Pattern.compile(
+            Pattern.quote(PLACEHOLDER_PREFIX) + "([A-Za-z0-9_]+)" + Pattern.quote(PLACEHOLDER_SUFFIX));
+
+    private final String[] literals;
+    private final String[] variables;
+    private final int literalLength;
+
+    private PrecompiledEmailTemplate(List<String> literals, List<String> variables) {
+        this.literals = literals.toArray(new String[0]);
+        this.variables = variables.toArray(new String[0]);
+        this.literalLength = literals.stream().mapToInt(String::length).sum();
+    }
+
+    public static PrecompiledEmailTemplate compile(TemplateEngine templateEngine, String templateName,
+                                                   Set<String> variableNames) {
+        Context context = new Context();
+        variableNames.forEach(name -> context.setVariable(name, PLACEHOLDER_PREFIX + name + PLACEHOLDER_SUFFIX));
+        String rendered = templateEngine.process(templateName, context);
+
+        List<String> literals = new ArrayList<>();
+        List<String> variables = new ArrayList<>();
+        Matcher matcher = PLACEHOLDER.matcher(rendered);
+        int position = 0;
+        while (matcher.find()) {
+            literals.add(rendered.substring(position, matcher.start()));
+            variables.add(matcher.group(1));
+            position = matcher.end();
+        }
+        literals.add(rendered.substring(position));
+
+        for (String name : variableNames) {
+            if (!variables.contains(name)) {
+                throw new IllegalStateException("Template " + templateName + " does not output variable " + name);
+            }
+        }
+        return new PrecompiledEmailTemplate(literals, variables);
+    }
+
+    public String render(Map<String, String> values) {
+        StringBuilder html = new StringBuilder(literalLength + 64 * variables.length);
+        for (int i = 0; i < variables.length; i++) {
+            html.append(literals[i]);
+            String value = values.get(variables[i]);
+            if (value != null) {
+                html.append(HtmlUtils.htmlEscape(value));
+            }
+        }
+        return html.append(literals[variables.length]).toString();
+    }
+}
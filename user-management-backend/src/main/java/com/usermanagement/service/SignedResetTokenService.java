@@ -0,0 +1,128 @@
+package com.usermanagement.service;
+
+import com.usermanagement.entity.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Issues password reset tokens that need no table. A token is {@code payload.mac}, where the
+ * payload carries the user id and expiry and the MAC is an HMAC-SHA256 over the payload and the
+ * user's current password hash. The hash is not part of the token, but any password change alters
+ * it, so a token stops verifying as soon as it has been used or the password is changed otherwise.
+ */
+@Service
+public class SignedResetTokenService {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int PAYLOAD_LENGTH = 2 * Long.BYTES;
+
+    private final SecretKeySpec key;
+    private final Duration ttl;
+    private final ThreadLocal<Mac> macs;
+
+    public SignedResetTokenService(@Value("${app.password-reset.secret:${jwt.secret}}") String secret,
+                                   @Value("${app.password-reset.ttl:24h}") Duration ttl) {
+        // Derived with a purpose label so the same secret never yields the access token key
+        this.key = new SecretKeySpec(sha256("password-reset|" + secret), ALGORITHM);
+        this.ttl = ttl;
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
+    public static boolean isSignedToken(String token) {
+        return token != null && token.indexOf('.') > 0;
+    }
+
+    public String issue(User user) {
+        ByteBuffer payload = ByteBuffer.allocate(PAYLOAD_LENGTH)
+                .putLong(user.getId())
+                .putLong(Instant.now().plus(ttl).getEpochSecond());
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString(payload.array()) + "." + encoder.encodeToString(mac(payload.array(), user));
+    }
+
+    /**
+     * The structurally valid content of a token, or empty if it cannot be decoded. The MAC is only
+     * checked by {@link #verify}, once the user's current password hash is known.
+     */
+    public Optional<ParsedToken> parse(String token) {
+        int separator = token.indexOf('.');
+        if (separator <= 0) {
+            return Optional.empty();
+        }
+        try {
+            Base64.Decoder decoder = Base64.getUrlDecoder();
+            byte[] payload = decoder.decode(token.substring(0, separator));
+            byte[] mac = decoder.decode(token.substring(separator + 1));
+            if (payload.length != PAYLOAD_LENGTH) {
+                return Optional.empty();
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(payload);
+            return Optional.of(new ParsedToken(buffer.getLong(), Instant.ofEpochSecond(buffer.getLong()), payload, mac));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    public boolean verify(ParsedToken token, User user) {
+        return token.getUserId() == user.getId()
+                && MessageDigest.isEqual(token.mac, mac(token.payload, user));
+    }
+
+    private byte[] mac(byte[] payload, User user) {
+        Mac mac = macs.get();
+        mac.update(payload);
+        return mac.doFinal(user.getPassword().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available", e);
+        }
+    }
+
+    private static byte[] sha256(String value) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    public static final class ParsedToken {
+        private final long userId;
+        private final Instant expiresAt;
+        private final byte[] payload;
+        private final byte[] mac;
+
+        private ParsedToken(long userId, Instant expiresAt, byte[] payload, byte[] mac) {
+            this.userId = userId;
+            this.expiresAt = expiresAt;
+            this.payload = payload;
+            this.mac = mac;
+        }
+
+        public long getUserId() {
+            return userId;
+        }
+
+        public boolean isExpired() {
+            return Instant.now().isAfter(expiresAt);
+        }
+    }
+}
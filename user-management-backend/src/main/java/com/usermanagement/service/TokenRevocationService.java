@@ -0,0 +1,103 @@
+package com.usermanagement.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.usermanagement.entity.User;
+import com.usermanagement.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Tracks the current token version of each user. Tokens carry the version they were issued with;
+ * bumping the version revokes every token issued before it. Versions are read from the database
+ * at most once per user per TTL and updated in place whenever this instance revokes tokens.
+ * Nothing is broadcast, so other instances honour a revocation only once their entry expires:
+ * {@code jwt.revocation.ttl} bounds that lag and defaults to 15 seconds, at the cost of one
+ * primary key lookup per active user per TTL.
+ */
+@Service
+public class TokenRevocationService {
+
+    private static final int DELETED = -1;
+
+    private final LoadingCache<Long, Integer> tokenVersions;
+
+    public TokenRevocationService(UserRepository userRepository,
+                                  @Value("${jwt.revocation.max-size:100000}") long maxSize,
+                                  @Value("${jwt.revocation.ttl:15s}") Duration ttl,
+                                  MeterRegistry meterRegistry) {
+        this.tokenVersions = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build(id -> userRepository.findTokenVersionById(id).orElse(DELETED));
+        CaffeineCacheMetrics.monitor(meterRegistry, tokenVersions, "jwtTokenVersions");
+    }
+
+    public boolean isCurrent(Long userId, int tokenVersion) {
+        Integer current = tokenVersions.get(userId);
+        return current != null && current != DELETED && tokenVersion >= current;
+    }
+
+    public void revokeTokens(User user) {
+        user.setTokenVersion(user.getTokenVersion() + 1);
+        publish(user.getId(), user.getTokenVersion());
+    }
+
+    public void userDeleted(Long userId) {
+        publish(userId, DELETED);
+    }
+
+    public void usersDeleted(Collection<Long> userIds) {
+        userIds.forEach(id -> tokenVersions.put(id, DELETED));
+        List<Long> ids = List.copyOf(userIds);
+        afterCompletion(status -> {
+            if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                ids.forEach(id -> tokenVersions.put(id, DELETED));
+            } else {
+                tokenVersions.invalidateAll(ids);
+            }
+        });
+    }
+
+    /**
+     * Forgets the cached versions of users whose version was bumped by a bulk statement; the new
+     * versions are read back from the database on the next check.
+     */
+    public void versionsChanged(Collection<Long> userIds) {
+        List<Long> ids = List.copyOf(userIds);
+        tokenVersions.invalidateAll(ids);
+        afterCompletion(status -> tokenVersions.invalidateAll(ids));
+    }
+
+    private void publish(Long userId, int version) {
+        tokenVersions.put(userId, version);
+        afterCompletion(status -> {
+            if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                tokenVersions.put(userId, version);
+            } else {
+                tokenVersions.invalidate(userId);
+            }
+        });
+    }
+
+    private static void afterCompletion(IntConsumer callback) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    callback.accept(status);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.usermanagement.service;
+
+import com.usermanagement.config.AuthenticatedUser;
+import com.usermanagement.dto.BulkActionResult;
+import com.usermanagement.dto.BulkUserAction;
+import com.usermanagement.dto.BulkUserActionRequest;
+import com.usermanagement.exception.BadRequestException;
+import com.usermanagement.repository.PasswordResetTokenRepository;
+import com.usermanagement.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Applies role changes, disabling, enabling and deletion to many users with set-based statements.
+ * Targets are resolved in id order, one bounded chunk at a time, and each chunk is selected
+ * {@code FOR UPDATE} and updated in its own short transaction, so a row that stops matching the
+ * filter before its chunk runs is left alone and a large operation never holds locks on the whole
+ * table. The calling admin is never part of the target set.
+ */
+@Service
+public class UserBulkActionService {
+
+    private final UserRepository userRepository;
+    private final PasswordResetTokenRepository passwordResetTokenRepository;
+    private final TokenRevocationService tokenRevocationService;
+    private final UserDetailsCache userDetailsCache;
+    private final UserSearchIndex userSearchIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public UserBulkActionService(UserRepository userRepository,
+                                 PasswordResetTokenRepository passwordResetTokenRepository,
+                                 TokenRevocationService tokenRevocationService,
+                                 UserDetailsCache userDetailsCache,
+                                 UserSearchIndex userSearchIndex,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${app.bulk.chunk-size:500}") int chunkSize) {
+        this.userRepository = userRepository;
+        this.passwordResetTokenRepository = passwordResetTokenRepository;
+        this.tokenRevocationService = tokenRevocationService;
+        this.userDetailsCache = userDetailsCache;
+        this.userSearchIndex = userSearchIndex;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    public BulkActionResult apply(BulkUserActionRequest request, AuthenticatedUser caller) {
+        validate(request);
+        long startedAt = System.nanoTime();
+        List<Long> ids = request.getIds() == null ? null
+                : request.getIds().stream().distinct().sorted().collect(Collectors.toList());
+
+        long matched = 0;
+        long affected = 0;
+        long skipped = 0;
+        int chunks = 0;
+        long afterId = 0;
+        int offset = 0;
+        while (true) {
+            List<Long> slice = null;
+            if (ids != null) {
+                if (offset >= ids.size()) {
+                    break;
+                }
+                slice = ids.subList(offset, Math.min(offset + chunkSize, ids.size()));
+                offset += slice.size();
+            }
+            ChunkOutcome outcome = transactionTemplate.execute(
+                    new ChunkCallback(request, slice, ids != null ? 0L : afterId, caller.getId()));
+            if (outcome == null || (ids == null && outcome.matched == 0)) {
+                break;
+            }
+            afterId = outcome.lastId;
+            matched += outcome.matched;
+            skipped += outcome.skipped;
+            affected += outcome.affected;
+            if (outcome.applied) {
+                chunks++;
+            }
+        }
+
+        return BulkActionResult.builder()
+                .action(request.getAction())
+                .matched(matched)
+                .affected(affected)
+                .skipped(skipped)
+                .chunks(chunks)
+                .elapsedMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt))
+                .build();
+    }
+
+    private int applyChunk(BulkUserActionRequest request, Map<Long, String> targets) {
+        List<Long> ids = new ArrayList<>(targets.keySet());
+        LocalDateTime now = LocalDateTime.now();
+        int rows;
+        switch (request.getAction()) {
+            case CHANGE_ROLE:
+                rows = userRepository.changeRoles(ids, request.getRole(), now);
+                tokenRevocationService.versionsChanged(ids);
+                userSearchIndex.changeRole(ids, request.getRole());
+                break;
+            case DISABLE:
+                rows = userRepository.disableAll(ids, now);
+                tokenRevocationService.versionsChanged(ids);
+                break;
+            case ENABLE:
+                rows = userRepository.enableAll(ids, now);
+                break;
+            case DELETE:
+                passwordResetTokenRepository.deleteByUserIds(ids);
+                rows = userRepository.deleteAllByIds(ids);
+                tokenRevocationService.usersDeleted(ids);
+                userSearchIndex.removeAll(ids);
+                break;
+            default:
+                throw new IllegalStateException("Unhandled bulk action: " + request.getAction());
+        }
+        userDetailsCache.evict(targets.values());
+        return rows;
+    }
+
+    private final class ChunkCallback implements TransactionCallback<ChunkOutcome> {
+        private final BulkUserActionRequest request;
+        private final List<Long> ids;
+        private final long afterId;
+        private final Long callerId;
+
+        private ChunkCallback(BulkUserActionRequest request, List<Long> ids, long afterId, Long callerId) {
+            this.request = request;
+            this.ids = ids;
+            this.afterId = afterId;
+            this.callerId = callerId;
+        }
+
+        @Override
+        public ChunkOutcome doInTransaction(@NonNull TransactionStatus status) {
+            Map<Long, String> targets = userRepository.lockEmailsAfter(
+                    ids == null ? request.getFilter() : null, ids, afterId, chunkSize);
+            ChunkOutcome outcome = new ChunkOutcome();
+            outcome.matched = targets.size();
+            outcome.lastId = lastKey(targets);
+            if (targets.remove(callerId) != null) {
+                outcome.skipped = 1;
+            }
+            if (!targets.isEmpty()) {
+                outcome.affected = applyChunk(request, targets);
+                outcome.applied = true;
+            }
+            return outcome;
+        }
+    }
+
+    private static final class ChunkOutcome {
+        private long matched;
+        private long skipped;
+        private long affected;
+        private long lastId;
+        private boolean applied;
+    }
+
+    private static void validate(BulkUserActionRequest request) {
+        boolean hasIds = request.getIds() != null;
+        boolean hasFilter = request.getFilter() != null;
+        if (hasIds == hasFilter) {
+            throw new BadRequestException("Provide either ids or filter");
+        }
+        if (hasFilter && request.getFilter().isEmpty()) {
+            throw new BadRequestException("Filter must set at least one of role, createdBefore or enabled");
+        }
+        if (hasIds && request.getIds().contains(null)) {
+            throw new BadRequestException("Ids must not contain null");
+        }
+        if (request.getAction() == BulkUserAction.CHANGE_ROLE && request.getRole() == null) {
+            throw new BadRequestException("Role is required for CHANGE_ROLE");
+        }
+    }
+
+    private static long lastKey(Map<Long, String> targets) {
+        long last = 0L;
+        for (Long id : targets.keySet()) {
+            last = id;
+        }
+        return last;
+    }
+}
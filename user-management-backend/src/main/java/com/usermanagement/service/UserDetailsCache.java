@@ -0,0 +1,82 @@
+package com.usermanagement.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.usermanagement.config.AuthenticatedUser;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Caches the authentication snapshot of a user by email. Entries are evicted immediately and
+ * again after commit whenever the underlying row changes, so a reader racing the writing
+ * transaction cannot leave a stale entry behind.
+ */
+@Component
+public class UserDetailsCache {
+
+    private final Cache<String, AuthenticatedUser> cache;
+
+    public UserDetailsCache(@Value("${app.cache.user-details.max-size:10000}") long maxSize,
+                            @Value("${app.cache.user-details.ttl:10m}") Duration ttl,
+                            @Value("${app.cache.user-details.expiry:after-write}") String expiry,
+                            MeterRegistry meterRegistry) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats();
+        if ("after-access".equalsIgnoreCase(expiry)) {
+            builder.expireAfterAccess(ttl);
+        } else {
+            builder.expireAfterWrite(ttl);
+        }
+        this.cache = builder.build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "userDetails");
+    }
+
+    public AuthenticatedUser get(String email, Function<String, AuthenticatedUser> loader) {
+        return cache.get(key(email), key -> loader.apply(email));
+    }
+
+    public void evict(String email) {
+        String key = key(email);
+        cache.invalidate(key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(key);
+                }
+            });
+        }
+    }
+
+    public void evict(Collection<String> emails) {
+        Collection<String> keys = emails.stream().map(UserDetailsCache::key).collect(Collectors.toList());
+        cache.invalidateAll(keys);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidateAll(keys);
+                }
+            });
+        }
+    }
+
+    public void evictAll() {
+        cache.invalidateAll();
+    }
+
+    private static String key(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,154 @@
+package com.usermanagement.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.usermanagement.dto.UserSummary;
+import com.usermanagement.exception.BadRequestException;
+import com.usermanagement.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Streams the whole user directory from a forward-only cursor straight to the response. Rows are
+ * read as projections and written as they arrive, so memory use does not depend on table size.
+ */
+@Service
+public class UserExportService {
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format parse(String value) {
+            try {
+                return valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("Unsupported export format: " + value);
+            }
+        }
+    }
+
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+
+    @Value("${app.export.flush-every:1000}")
+    private int flushEvery;
+
+    public UserExportService(UserRepository userRepository, ObjectMapper objectMapper,
+                             PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public void export(Format format, OutputStream outputStream) {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), 64 * 1024);
+            try (Stream<UserSummary> rows = userRepository.streamAllSummaries()) {
+                if (format == Format.CSV) {
+                    writeCsv(rows.iterator(), writer);
+                } else {
+                    writeNdjson(rows.iterator(), writer);
+                }
+                writer.flush();
+            } catch (IOException e) {
+                // Usually the client went away; closing the stream releases the cursor and connection
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private void writeNdjson(Iterator<UserSummary> rows, Writer writer) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(writer);
+        generator.setRootValueSeparator(null);
+        long count = 0;
+        while (rows.hasNext()) {
+            UserSummary row = rows.next();
+            generator.writeStartObject();
+            generator.writeNumberField("id", row.getId());
+            generator.writeStringField("email", row.getEmail());
+            generator.writeStringField("firstName", row.getFirstName());
+            generator.writeStringField("lastName", row.getLastName());
+            generator.writeStringField("role", row.getRole().name());
+            generator.writeStringField("createdAt", String.valueOf(row.getCreatedAt()));
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+            if (++count % flushEvery == 0) {
+                generator.flush();
+            }
+        }
+        generator.flush();
+    }
+
+    private void writeCsv(Iterator<UserSummary> rows, Writer writer) throws IOException {
+        writer.write("id,email,firstName,lastName,role,createdAt\n");
+        long count = 0;
+        while (rows.hasNext()) {
+            UserSummary row = rows.next();
+            writer.write(String.valueOf(row.getId()));
+            writer.write(',');
+            writer.write(csv(row.getEmail()));
+            writer.write(',');
+            writer.write(csv(row.getFirstName()));
+            writer.write(',');
+            writer.write(csv(row.getLastName()));
+            writer.write(',');
+            writer.write(row.getRole().name());
+            writer.write(',');
+            writer.write(String.valueOf(row.getCreatedAt()));
+            writer.write('\n');
+            if (++count % flushEvery == 0) {
+                writer.flush();
+            }
+        }
+    }
+
+    // Cells a spreadsheet would evaluate as a formula get a leading apostrophe (OWASP CSV injection guidance)
+    private static String csv(String value) {
+        if (value == null || value.isEmpty()) {
+            return "";
+        }
+        if (isFormulaTrigger(value.charAt(0))) {
+            value = "'" + value;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static boolean isFormulaTrigger(char first) {
+        return first == '=' || first == '+' || first == '-' || first == '@' || first == '\t' || first == '\r';
+    }
+}
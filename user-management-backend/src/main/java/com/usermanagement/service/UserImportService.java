@@ -0,0 +1,352 @@
+package com.usermanagement.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.usermanagement.config.OffloadingPasswordEncoder;
+import com.usermanagement.dto.BulkImportResult;
+import com.usermanagement.dto.RegisterRequest;
+import com.usermanagement.entity.Role;
+import com.usermanagement.entity.User;
+import com.usermanagement.exception.BadRequestException;
+import com.usermanagement.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Imports users from a CSV or NDJSON stream in fixed-size chunks. Each chunk is parsed and
+ * validated in parallel, checked for duplicate emails with one query, hashed in parallel and
+ * inserted in a single JDBC-batched transaction. Rows that fail are reported by line number and
+ * do not stop the import.
+ */
+@Service
+public class UserImportService {
+
+    private static final List<String> CSV_COLUMNS = List.of("email", "password", "firstName", "lastName");
+
+    private final UserRepository userRepository;
+    private final UserSearchIndex userSearchIndex;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final PasswordEncoder hashingEncoder;
+    private final TransactionTemplate transactionTemplate;
+    private final ForkJoinPool workers;
+    private final int chunkSize;
+    private final int maxReportedErrors;
+
+    public UserImportService(UserRepository userRepository,
+                             UserSearchIndex userSearchIndex,
+                             ObjectMapper objectMapper,
+                             Validator validator,
+                             PasswordEncoder passwordEncoder,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${app.import.chunk-size:500}") int chunkSize,
+                             @Value("${app.import.parallelism:0}") int parallelism,
+                             @Value("${app.import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.userRepository = userRepository;
+        this.userSearchIndex = userSearchIndex;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        // Hash directly on the import workers; the shared hashing pool is sized for interactive traffic
+        this.hashingEncoder = passwordEncoder instanceof OffloadingPasswordEncoder
+                ? ((OffloadingPasswordEncoder) passwordEncoder).getDelegate()
+                : passwordEncoder;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // By default leave half the cores to logins and registrations while an import runs
+        this.workers = new ForkJoinPool(parallelism > 0
+                ? parallelism
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+        this.chunkSize = chunkSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    public BulkImportResult importUsers(UserExportService.Format format, InputStream inputStream) {
+        long startedAt = System.nanoTime();
+        ImportReport report = new ImportReport(maxReportedErrors);
+        Set<String> seenEmails = new HashSet<>();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            int[] columns = format == UserExportService.Format.CSV ? readCsvHeader(reader) : null;
+            long lineNumber = columns != null ? 1 : 0;
+            List<ImportRow> chunk = new ArrayList<>(chunkSize);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                chunk.add(new ImportRow(lineNumber, line));
+                if (chunk.size() == chunkSize) {
+                    processChunk(chunk, columns, seenEmails, report);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                processChunk(chunk, columns, seenEmails, report);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        long elapsedNanos = System.nanoTime() - startedAt;
+        return BulkImportResult.builder()
+                .received(report.received)
+                .imported(report.imported)
+                .failed(report.failed)
+                .elapsedMillis(TimeUnit.NANOSECONDS.toMillis(elapsedNanos))
+                .rowsPerSecond(elapsedNanos > 0 ? report.received * 1e9 / elapsedNanos : 0)
+                .errorsTruncated(report.truncated)
+                .errors(report.errors)
+                .build();
+    }
+
+    private void processChunk(List<ImportRow> chunk, int[] columns, Set<String> seenEmails, ImportReport report) {
+        forEachInParallel(chunk, row -> parseAndValidate(row, columns));
+
+        List<ImportRow> candidates = new ArrayList<>(chunk.size());
+        for (ImportRow row : chunk) {
+            if (row.error == null && !seenEmails.add(row.emailKey())) {
+                row.error = "Duplicate email in import";
+            }
+            if (row.error == null) {
+                candidates.add(row);
+            }
+        }
+        rejectExistingEmails(candidates);
+
+        List<ImportRow> accepted = candidates.stream().filter(row -> row.error == null).collect(Collectors.toList());
+        forEachInParallel(accepted, row -> {
+            row.user.setPassword(hashingEncoder.encode(row.rawPassword));
+            row.rawPassword = null;
+        });
+        insert(accepted.stream().filter(row -> row.error == null).collect(Collectors.toList()));
+
+        report.record(chunk);
+    }
+
+    private void parseAndValidate(ImportRow row, int[] columns) {
+        RegisterRequest request = columns != null ? parseCsvRow(row, columns) : parseJsonRow(row);
+        row.line = null;
+        if (request == null) {
+            return;
+        }
+
+        Set<ConstraintViolation<RegisterRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            row.email = request.getEmail();
+            row.error = violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+            return;
+        }
+
+        User user = new User();
+        user.setEmail(request.getEmail());
+        user.setFirstName(request.getFirstName());
+        user.setLastName(request.getLastName());
+        user.setRole(Role.ROLE_USER);
+        row.email = request.getEmail();
+        row.rawPassword = request.getPassword();
+        row.user = user;
+    }
+
+    private RegisterRequest parseCsvRow(ImportRow row, int[] columns) {
+        List<String> values = parseCsvLine(row.line);
+        if (values.size() < columns.length) {
+            row.error = "Expected at least " + columns.length + " columns but found " + values.size();
+            return null;
+        }
+        RegisterRequest request = new RegisterRequest();
+        request.setEmail(values.get(columns[0]).trim());
+        request.setPassword(values.get(columns[1]));
+        request.setFirstName(values.get(columns[2]).trim());
+        request.setLastName(values.get(columns[3]).trim());
+        return request;
+    }
+
+    private RegisterRequest parseJsonRow(ImportRow row) {
+        try {
+            return objectMapper.readValue(row.line, RegisterRequest.class);
+        } catch (JsonProcessingException e) {
+            row.error = "Malformed JSON: " + e.getOriginalMessage();
+            return null;
+        }
+    }
+
+    private void rejectExistingEmails(List<ImportRow> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<String> emails = rows.stream().map(row -> row.email).collect(Collectors.toList());
+        Set<String> existing = userRepository.findExistingEmails(emails).stream()
+                .map(email -> email.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toSet());
+        for (ImportRow row : rows) {
+            if (existing.contains(row.emailKey())) {
+                row.error = "Email already registered";
+            }
+        }
+    }
+
+    private void insert(List<ImportRow> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<User> users = rows.stream().map(row -> row.user).collect(Collectors.toList());
+        try {
+            transactionTemplate.executeWithoutResult(status -> userRepository.saveAll(users));
+            userSearchIndex.upsertAll(users);
+        } catch (DataAccessException e) {
+            // Typically a concurrent registration took one of the emails; retry row by row so only it fails
+            for (ImportRow row : rows) {
+                row.user.setId(null);
+                try {
+                    transactionTemplate.executeWithoutResult(status -> userRepository.save(row.user));
+                    userSearchIndex.upsert(row.user);
+                } catch (DataAccessException rowFailure) {
+                    row.error = "Insert failed: " + NestedExceptionUtils.getMostSpecificCause(rowFailure).getMessage();
+                }
+            }
+        }
+    }
+
+    private void forEachInParallel(List<ImportRow> rows, Consumer<ImportRow> action) {
+        // A parallel stream started from a task runs on that task's pool rather than the common pool
+        workers.submit(() -> rows.parallelStream().forEach(row -> {
+            try {
+                action.accept(row);
+            } catch (RuntimeException e) {
+                row.error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            }
+        })).join();
+    }
+
+    private static int[] readCsvHeader(BufferedReader reader) throws IOException {
+        String header = reader.readLine();
+        if (header == null) {
+            throw new BadRequestException("CSV import is empty");
+        }
+        if (header.startsWith("\uFEFF")) {
+            header = header.substring(1);
+        }
+        List<String> names = parseCsvLine(header);
+        int[] columns = new int[CSV_COLUMNS.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = -1;
+            for (int j = 0; j < names.size(); j++) {
+                if (names.get(j).trim().equalsIgnoreCase(CSV_COLUMNS.get(i))) {
+                    columns[i] = j;
+                    break;
+                }
+            }
+            if (columns[i] < 0) {
+                throw new BadRequestException("CSV header must contain the columns " + String.join(",", CSV_COLUMNS));
+            }
+        }
+        return columns;
+    }
+
+    private static List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    value.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    private static final class ImportRow {
+        private final long lineNumber;
+        private String line;
+        private String email;
+        private String rawPassword;
+        private User user;
+        private String error;
+
+        private ImportRow(long lineNumber, String line) {
+            this.lineNumber = lineNumber;
+            this.line = line;
+        }
+
+        private String emailKey() {
+            return email.toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private static final class ImportReport {
+        private final int maxErrors;
+        private final List<BulkImportResult.RowError> errors = new ArrayList<>();
+        private long received;
+        private long imported;
+        private long failed;
+        private boolean truncated;
+
+        private ImportReport(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+
+        private void record(List<ImportRow> chunk) {
+            for (ImportRow row : chunk) {
+                received++;
+                if (row.error == null) {
+                    imported++;
+                    continue;
+                }
+                failed++;
+                if (errors.size() < maxErrors) {
+                    errors.add(new BulkImportResult.RowError(row.lineNumber, row.email, row.error));
+                } else {
+                    truncated = true;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,443 @@
+package com.usermanagement.service;
+
+import com.usermanagement.dto.UserResponse;
+import com.usermanagement.dto.UserSummary;
+import com.usermanagement.entity.Role;
+import com.usermanagement.entity.User;
+import com.usermanagement.repository.UserRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * In-memory search over email, first name and last name. Every field contributes its trigrams
+ * and the one- and two-character prefixes of its words to an inverted index of int postings.
+ * A query is answered by scanning the shortest posting list among its terms and verifying and
+ * scoring each candidate, so no query touches the database.
+ *
+ * <p>The index is built from a streaming scan once the application is ready and rebuilt on a
+ * schedule, which also compacts postings left behind by updates and picks up changes made by
+ * other instances. Changes made here are applied after their transaction commits.
+ */
+@Slf4j
+@Component
+public class UserSearchIndex {
+
+    private static final int GRAM = 3;
+    private static final String PREFIX_MARKER = "^";
+    private static final Comparator<Hit> RANKING = Comparator.comparingInt((Hit hit) -> hit.score)
+            .thenComparingInt(hit -> -hit.doc.email.length())
+            .thenComparingLong(hit -> -hit.doc.id);
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Timer rebuildTimer;
+
+    // Guarded by lock
+    private Index index = new Index();
+    // Changes applied while a rebuild streams the table, replayed onto the new index; guarded by lock
+    private List<Consumer<Index>> journal;
+
+    private volatile long lastRebuildMillis;
+
+    public UserSearchIndex(UserRepository userRepository, PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+
+        this.rebuildTimer = Timer.builder("users.search.index.rebuild").register(meterRegistry);
+        Gauge.builder("users.search.index.documents", this, search -> search.read(idx -> idx.liveDocs))
+                .register(meterRegistry);
+        Gauge.builder("users.search.index.postings", this, search -> search.read(idx -> idx.postingCount))
+                .register(meterRegistry);
+        Gauge.builder("users.search.index.memory", this, search -> search.read(Index::estimatedBytes))
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("users.search.index.rebuild.last", this, search -> search.lastRebuildMillis)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuild();
+    }
+
+    @Scheduled(cron = "${app.search.rebuild-cron:0 0 4 * * *}")
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            if (journal != null) {
+                return;
+            }
+            journal = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        long startedAt = System.nanoTime();
+        Index fresh = new Index();
+        boolean built = false;
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<UserSummary> rows = userRepository.streamAllSummaries()) {
+                    rows.forEach(row -> fresh.put(Doc.of(row)));
+                }
+            });
+            built = true;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                // A failed scan keeps serving the previous index
+                if (built) {
+                    journal.forEach(change -> change.accept(fresh));
+                    index = fresh;
+                }
+                journal = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        long elapsedNanos = System.nanoTime() - startedAt;
+        rebuildTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        lastRebuildMillis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        log.info("Built user search index with {} users in {} ms", fresh.liveDocs, lastRebuildMillis);
+    }
+
+    public List<UserResponse> search(String query, int limit) {
+        String[] terms = query.trim().toLowerCase(Locale.ROOT).split("\\s+");
+        return read(idx -> idx.search(terms, limit));
+    }
+
+    public void upsert(User user) {
+        Doc doc = Doc.of(user);
+        apply(idx -> idx.put(doc));
+    }
+
+    public void upsertAll(Collection<User> users) {
+        List<Doc> docs = new ArrayList<>(users.size());
+        users.forEach(user -> docs.add(Doc.of(user)));
+        apply(idx -> docs.forEach(idx::put));
+    }
+
+    public void changeRole(Collection<Long> ids, Role role) {
+        List<Long> changed = List.copyOf(ids);
+        apply(idx -> changed.forEach(id -> idx.changeRole(id, role)));
+    }
+
+    public void remove(Long id) {
+        apply(idx -> idx.remove(id));
+    }
+
+    public void removeAll(Collection<Long> ids) {
+        List<Long> removed = List.copyOf(ids);
+        apply(idx -> removed.forEach(idx::remove));
+    }
+
+    private void apply(Consumer<Index> change) {
+        Runnable write = () -> {
+            lock.writeLock().lock();
+            try {
+                change.accept(index);
+                if (journal != null) {
+                    journal.add(change);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    write.run();
+                }
+            });
+        } else {
+            write.run();
+        }
+    }
+
+    private <T> T read(Function<Index, T> reader) {
+        lock.readLock().lock();
+        try {
+            return reader.apply(index);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static Set<String> keys(Doc doc) {
+        Set<String> keys = new HashSet<>();
+        for (String field : doc.searchable()) {
+            for (int i = 0; i + GRAM <= field.length(); i++) {
+                keys.add(field.substring(i, i + GRAM));
+            }
+            for (int i = 0; i < field.length(); i++) {
+                if (isWordStart(field, i)) {
+                    keys.add(PREFIX_MARKER + field.charAt(i));
+                    if (i + 1 < field.length()) {
+                        keys.add(PREFIX_MARKER + field.substring(i, i + 2));
+                    }
+                }
+            }
+        }
+        return keys;
+    }
+
+    private static List<String> queryKeys(String term) {
+        if (term.length() < GRAM) {
+            return List.of(PREFIX_MARKER + term);
+        }
+        List<String> keys = new ArrayList<>(term.length() - GRAM + 1);
+        for (int i = 0; i + GRAM <= term.length(); i++) {
+            keys.add(term.substring(i, i + GRAM));
+        }
+        return keys;
+    }
+
+    private static boolean isWordStart(String field, int position) {
+        return Character.isLetterOrDigit(field.charAt(position))
+                && (position == 0 || !Character.isLetterOrDigit(field.charAt(position - 1)));
+    }
+
+    // Highest match of the term in any field, or 0 if no field matches
+    private static int score(Doc doc, String term) {
+        int best = 0;
+        for (String field : doc.searchable()) {
+            if (field.equals(term)) {
+                return 100;
+            }
+            if (field.startsWith(term)) {
+                best = Math.max(best, 60);
+                continue;
+            }
+            for (int at = field.indexOf(term); at >= 0; at = field.indexOf(term, at + 1)) {
+                if (isWordStart(field, at)) {
+                    best = Math.max(best, 40);
+                    break;
+                }
+                if (term.length() >= GRAM) {
+                    best = Math.max(best, 10);
+                }
+            }
+        }
+        return best;
+    }
+
+    private static final class Index {
+        private final Map<Long, Integer> ordinals = new HashMap<>();
+        private final Map<String, Postings> postings = new HashMap<>();
+        private Doc[] docs = new Doc[1024];
+        private int nextOrdinal;
+        private int liveDocs;
+        private long postingCount;
+
+        private void put(Doc doc) {
+            Integer existing = ordinals.get(doc.id);
+            if (existing != null) {
+                if (docs[existing].sameText(doc)) {
+                    docs[existing] = doc;
+                    return;
+                }
+                // Old postings keep pointing at the retired ordinal and are skipped until the next rebuild
+                docs[existing] = null;
+                liveDocs--;
+            }
+            int ordinal = nextOrdinal++;
+            if (ordinal == docs.length) {
+                docs = Arrays.copyOf(docs, docs.length * 2);
+            }
+            docs[ordinal] = doc;
+            ordinals.put(doc.id, ordinal);
+            liveDocs++;
+            for (String key : keys(doc)) {
+                postings.computeIfAbsent(key, k -> new Postings()).add(ordinal);
+                postingCount++;
+            }
+        }
+
+        private void changeRole(Long id, Role role) {
+            Integer ordinal = ordinals.get(id);
+            if (ordinal != null) {
+                docs[ordinal] = docs[ordinal].withRole(role);
+            }
+        }
+
+        private void remove(Long id) {
+            Integer ordinal = ordinals.remove(id);
+            if (ordinal != null) {
+                docs[ordinal] = null;
+                liveDocs--;
+            }
+        }
+
+        private List<UserResponse> search(String[] terms, int limit) {
+            Postings shortest = null;
+            for (String term : terms) {
+                for (String key : queryKeys(term)) {
+                    Postings candidate = postings.get(key);
+                    if (candidate == null) {
+                        return List.of();
+                    }
+                    if (shortest == null || candidate.size < shortest.size) {
+                        shortest = candidate;
+                    }
+                }
+            }
+            if (shortest == null) {
+                return List.of();
+            }
+
+            PriorityQueue<Hit> top = new PriorityQueue<>(limit + 1, RANKING);
+            for (int i = 0; i < shortest.size; i++) {
+                Doc doc = docs[shortest.ordinals[i]];
+                if (doc == null) {
+                    continue;
+                }
+                int total = 0;
+                for (String term : terms) {
+                    int termScore = score(doc, term);
+                    if (termScore == 0) {
+                        total = 0;
+                        break;
+                    }
+                    total += termScore;
+                }
+                if (total > 0) {
+                    top.add(new Hit(doc, total));
+                    if (top.size() > limit) {
+                        top.poll();
+                    }
+                }
+            }
+
+            List<Hit> hits = new ArrayList<>(top);
+            hits.sort(RANKING.reversed());
+            List<UserResponse> results = new ArrayList<>(hits.size());
+            hits.forEach(hit -> results.add(hit.doc.toResponse()));
+            return results;
+        }
+
+        // Rough heap estimate: int postings plus map, array and string overheads
+        private long estimatedBytes() {
+            return postingCount * Integer.BYTES
+                    + postings.size() * 96L
+                    + docs.length * 8L
+                    + liveDocs * 240L;
+        }
+    }
+
+    private static final class Postings {
+        private int[] ordinals = new int[4];
+        private int size;
+
+        private void add(int ordinal) {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size + (size >> 1));
+            }
+            ordinals[size++] = ordinal;
+        }
+    }
+
+    private static final class Hit {
+        private final Doc doc;
+        private final int score;
+
+        private Hit(Doc doc, int score) {
+            this.doc = doc;
+            this.score = score;
+        }
+    }
+
+    private static final class Doc {
+        private final long id;
+        private final String email;
+        private final String firstName;
+        private final String lastName;
+        private final Role role;
+        private final LocalDateTime createdAt;
+        private final String[] searchable;
+
+        private Doc(long id, String email, String firstName, String lastName, Role role, LocalDateTime createdAt) {
+            this.id = id;
+            this.email = email;
+            this.firstName = firstName;
+            this.lastName = lastName;
+            this.role = role;
+            this.createdAt = createdAt;
+            this.searchable = new String[]{lower(email), lower(firstName), lower(lastName)};
+        }
+
+        private static Doc of(User user) {
+            return new Doc(user.getId(), user.getEmail(), user.getFirstName(), user.getLastName(),
+                    user.getRole(), user.getCreatedAt());
+        }
+
+        private static Doc of(UserSummary row) {
+            return new Doc(row.getId(), row.getEmail(), row.getFirstName(), row.getLastName(),
+                    row.getRole(), row.getCreatedAt());
+        }
+
+        private Doc withRole(Role newRole) {
+            return new Doc(id, email, firstName, lastName, newRole, createdAt);
+        }
+
+        private String[] searchable() {
+            return searchable;
+        }
+
+        private boolean sameText(Doc other) {
+            return Arrays.equals(searchable, other.searchable);
+        }
+
+        private UserResponse toResponse() {
+            return UserResponse.builder()
+                    .id(id)
+                    .email(email)
+                    .firstName(firstName)
+                    .lastName(lastName)
+                    .role(role)
+                    .createdAt(createdAt)
+                    .build();
+        }
+
+        private static String lower(String value) {
+            if (value == null) {
+                return "";
+            }
+            String lower = value.toLowerCase(Locale.ROOT);
+            return lower.equals(value) ? value : lower;
+        }
+    }
+}
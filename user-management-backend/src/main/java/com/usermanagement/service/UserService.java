@@ -1,29 +1,59 @@
 package com.usermanagement.service;
 
+import com.usermanagement.config.AuthenticatedUser;
+import com.usermanagement.config.ServerTiming;
+import com.usermanagement.dto.CursorPage;
+import com.usermanagement.dto.UserField;
 import com.usermanagement.dto.UserResponse;
 import com.usermanagement.dto.UserUpdateRequest;
 import com.usermanagement.entity.Role;
 import com.usermanagement.entity.User;
+import com.usermanagement.exception.BadRequestException;
+import com.usermanagement.exception.InvalidTokenException;
 import com.usermanagement.exception.ResourceNotFoundException;
 import com.usermanagement.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+
 @Service
 @RequiredArgsConstructor
 public class UserService {
 
     private final UserRepository userRepository;
+    private final TokenRevocationService tokenRevocationService;
+    private final UserDetailsCache userDetailsCache;
+    private final UserSearchIndex userSearchIndex;
+
+    @Value("${app.pagination.max-page-size:100}")
+    private int maxPageSize;
+
+    @Value("${app.search.max-results:100}")
+    private int maxSearchResults;
+
+    @Value("${app.search.max-query-length:100}")
+    private int maxQueryLength;
 
     @Transactional(readOnly = true)
     public User findByEmail(String email) {
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with email: " + email));
+        long timingStartedAt = ServerTiming.start();
+        try {
+            return userRepository.findByEmail(email)
+                    .orElseThrow(() -> new ResourceNotFoundException("User not found with email: " + email));
+        } finally {
+            ServerTiming.stop(ServerTiming.Phase.USER, timingStartedAt);
+        }
     }
 
     @Transactional(readOnly = true)
@@ -33,80 +63,169 @@ public class UserService {
 
     @Transactional(readOnly = true)
     public Page<UserResponse> getAllUsers(Pageable pageable) {
-        return userRepository.findAll(pageable)
-                .map(this::mapToUserResponse);
+        return getAllUsers(pageable, UserField.ALL);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<UserResponse> getAllUsers(Pageable pageable, Set<UserField> fields) {
+        return userRepository.findAllProjected(fields, pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<UserResponse> getUsersAfter(String cursor, int size, Set<UserField> fields) {
+        int pageSize = Math.max(1, Math.min(size, maxPageSize));
+        long afterId = decodeCursor(cursor);
+
+        // Fetch one extra row to learn whether another page exists without counting
+        List<UserResponse> users = userRepository.findProjectedAfter(fields, afterId, pageSize + 1);
+        boolean hasNext = users.size() > pageSize;
+        if (hasNext) {
+            users = users.subList(0, pageSize);
+        }
+        String nextCursor = hasNext ? encodeCursor(users.get(users.size() - 1).getId()) : null;
+
+        if (!fields.contains(UserField.ID)) {
+            users.forEach(user -> user.setId(null));
+        }
+
+        return CursorPage.<UserResponse>builder()
+                .content(users)
+                .size(pageSize)
+                .hasNext(hasNext)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    public List<UserResponse> searchUsers(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("Search query must not be blank");
+        }
+        if (query.length() > maxQueryLength) {
+            throw new BadRequestException("Search query must be at most " + maxQueryLength + " characters");
+        }
+        return userSearchIndex.search(query, Math.max(1, Math.min(limit, maxSearchResults)));
     }
 
     @Transactional(readOnly = true)
     public UserResponse getUserById(Long id) {
-        User user = userRepository.findById(id)
+        return getUserById(id, UserField.ALL);
+    }
+
+    // Full reads come from the second-level cache; only a narrower selection is worth a projection query
+    @Transactional(readOnly = true)
+    public UserResponse getUserById(Long id, Set<UserField> fields) {
+        if (fields.equals(UserField.ALL)) {
+            return userRepository.findById(id)
+                    .map(UserService::mapToUserResponse)
+                    .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
+        }
+        return userRepository.findProjectedById(fields, id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
-        return mapToUserResponse(user);
     }
 
     @Transactional
     public UserResponse updateUser(Long id, UserUpdateRequest request) {
-        User currentUser = getCurrentUser();
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
+        AuthenticatedUser currentUser = getCurrentUser();
 
         // Only allow users to update their own profile unless they're an admin
-        if (!currentUser.getRole().equals(Role.ROLE_ADMIN) && !currentUser.getId().equals(id)) {
+        if (!currentUser.isAdmin() && !currentUser.getId().equals(id)) {
             throw new AccessDeniedException("You can only update your own profile");
         }
 
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
+
         // Check if email is being changed and if it's already taken
-        if (!user.getEmail().equals(request.getEmail()) && userRepository.existsByEmail(request.getEmail())) {
+        boolean emailChanged = !user.getEmail().equals(request.getEmail());
+        if (emailChanged && userRepository.existsByEmail(request.getEmail())) {
             throw new IllegalArgumentException("Email already taken");
         }
 
+        // Tokens carry the email as their subject, so an email change retires them
+        if (emailChanged) {
+            tokenRevocationService.revokeTokens(user);
+            userDetailsCache.evict(request.getEmail());
+        }
+        userDetailsCache.evict(user.getEmail());
+
         user.setEmail(request.getEmail());
         user.setFirstName(request.getFirstName());
         user.setLastName(request.getLastName());
 
         User updatedUser = userRepository.save(user);
+        userSearchIndex.upsert(updatedUser);
         return mapToUserResponse(updatedUser);
     }
 
     @Transactional
     public void deleteUser(Long id) {
-        User currentUser = getCurrentUser();
+        AuthenticatedUser currentUser = getCurrentUser();
         
         // Only admins can delete users
-        if (!currentUser.getRole().equals(Role.ROLE_ADMIN)) {
+        if (!currentUser.isAdmin()) {
             throw new AccessDeniedException("Only administrators can delete users");
         }
 
-        if (!userRepository.existsById(id)) {
-            throw new ResourceNotFoundException("User not found with id: " + id);
-        }
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
 
-        userRepository.deleteById(id);
+        userRepository.delete(user);
+        tokenRevocationService.userDeleted(id);
+        userDetailsCache.evict(user.getEmail());
+        userSearchIndex.remove(id);
     }
 
     @Transactional
     public UserResponse changeUserRole(Long id, Role role) {
-        User currentUser = getCurrentUser();
+        AuthenticatedUser currentUser = getCurrentUser();
         
         // Only admins can change roles
-        if (!currentUser.getRole().equals(Role.ROLE_ADMIN)) {
+        if (!currentUser.isAdmin()) {
             throw new AccessDeniedException("Only administrators can change user roles");
         }
 
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
 
-        user.setRole(role);
+        if (user.getRole() != role) {
+            user.setRole(role);
+            tokenRevocationService.revokeTokens(user);
+            userDetailsCache.evict(user.getEmail());
+            userSearchIndex.changeRole(List.of(id), role);
+        }
         User updatedUser = userRepository.save(user);
         return mapToUserResponse(updatedUser);
     }
 
-    private User getCurrentUser() {
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        return findByEmail(email);
+    private AuthenticatedUser getCurrentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof AuthenticatedUser)) {
+            throw new AccessDeniedException("Authentication required");
+        }
+        return (AuthenticatedUser) authentication.getPrincipal();
+    }
+
+    private static String encodeCursor(Long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(("id:" + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return 0L;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith("id:")) {
+                throw new InvalidTokenException("Invalid pagination cursor");
+            }
+            return Long.parseLong(decoded.substring(3));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidTokenException("Invalid pagination cursor");
+        }
     }
 
-    private UserResponse mapToUserResponse(User user) {
+    public static UserResponse mapToUserResponse(User user) {
         return UserResponse.builder()
                 .id(user.getId())
                 .email(user.getEmail())
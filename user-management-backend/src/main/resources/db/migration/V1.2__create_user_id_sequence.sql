@@ -0,0 +1,7 @@
+-- Backing table for the pooled User id generator. Hibernate hands out the block
+-- (next_val - 49 .. next_val), so seed it one full block above the current maximum id.
+CREATE TABLE user_seq (
+    next_val BIGINT
+);
+
+INSERT INTO user_seq (next_val) SELECT COALESCE(MAX(id), 0) + 50 FROM users;
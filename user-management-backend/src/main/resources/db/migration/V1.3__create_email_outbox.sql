@@ -0,0 +1,16 @@
+CREATE TABLE email_outbox (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    type VARCHAR(32) NOT NULL,
+    recipient VARCHAR(255) NOT NULL,
+    payload LONGTEXT NOT NULL,
+    status VARCHAR(16) NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at DATETIME(6) NOT NULL,
+    locked_until DATETIME(6),
+    last_error VARCHAR(1000),
+    dedup_key VARCHAR(255) NOT NULL UNIQUE,
+    created_at DATETIME(6) NOT NULL,
+    sent_at DATETIME(6),
+    INDEX idx_email_outbox_status_next_attempt (status, next_attempt_at),
+    INDEX idx_email_outbox_status_locked_until (status, locked_until)
+);
@@ -0,0 +1,6 @@
+-- Keep only the newest token of each user before allowing one outstanding token per user
+DELETE t FROM password_reset_tokens t
+    JOIN password_reset_tokens newer ON newer.user_id = t.user_id AND newer.id > t.id;
+
+CREATE INDEX idx_password_reset_tokens_expiry_date ON password_reset_tokens (expiry_date);
+ALTER TABLE password_reset_tokens ADD CONSTRAINT uk_password_reset_tokens_user UNIQUE (user_id);
@@ -0,0 +1,180 @@
+package com.usermanagement.config;
+
+import com.usermanagement.entity.Role;
+import com.usermanagement.entity.User;
+import com.usermanagement.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles({"test", "replicatest"})
+class ReplicaRoutingDataSourceTest {
+
+    // Without IFEXISTS, so the test can create the replica the application then connects to
+    private static final String REPLICA_URL = "jdbc:h2:mem:replica;MODE=MySQL;DB_CLOSE_DELAY=-1";
+    private static final String PRIMARY_URL = "jdbc:h2:mem:primary;MODE=MySQL;DB_CLOSE_DELAY=-1";
+    private static final String REPLICA_ONLY_EMAIL = "replica-only@example.com";
+    private static final Duration HEALTH_CHECK_WAIT = Duration.ofSeconds(10);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private TransactionTemplate writeTransaction;
+    private TransactionTemplate readOnlyTransaction;
+
+    // Runs before the application context starts, which reads from the replica on startup
+    @BeforeAll
+    static void createReplica() throws SQLException {
+        createReplicaSchema();
+    }
+
+    @BeforeEach
+    void setUp() {
+        writeTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        // The mock request bound for every test shares one client IP, which would pin all tests to the primary
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void writeGoesToPrimary() throws SQLException {
+        String email = uniqueEmail("writer");
+
+        writeTransaction.executeWithoutResult(status -> userRepository.save(newUser(email)));
+
+        assertThat(existsIn(PRIMARY_URL, email)).isTrue();
+        assertThat(existsIn(REPLICA_URL, email)).isFalse();
+    }
+
+    @Test
+    void readOnlyTransactionGoesToReplica() {
+        assertThat(readFromReplica()).isTrue();
+    }
+
+    @Test
+    void writersNextReadSticksToPrimary() {
+        String writer = uniqueEmail("sticky");
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken(writer, null, "ROLE_USER"));
+        writeTransaction.executeWithoutResult(status -> userRepository.save(newUser(writer)));
+
+        assertThat(readFromReplica()).isFalse();
+        Boolean writerVisible = readOnlyTransaction.execute(status -> userRepository.existsByEmail(writer));
+        assertThat(writerVisible).isTrue();
+
+        // Other clients keep reading from the replica
+        SecurityContextHolder.getContext().setAuthentication(
+                new TestingAuthenticationToken(uniqueEmail("reader"), null, "ROLE_USER"));
+        assertThat(readFromReplica()).isTrue();
+    }
+
+    @Test
+    void readsFallBackToPrimaryWhileReplicaIsDown() throws Exception {
+        try (Connection connection = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("SHUTDOWN");
+        }
+        awaitHealthyReplicas(0);
+
+        double fallbacksBefore = fallbackReads();
+        assertThat(readFromReplica()).isFalse();
+        assertThat(fallbackReads()).isEqualTo(fallbacksBefore + 1);
+
+        createReplicaSchema();
+        awaitHealthyReplicas(1);
+        assertThat(readFromReplica()).isTrue();
+    }
+
+    private boolean readFromReplica() {
+        return Boolean.TRUE.equals(readOnlyTransaction.execute(status -> userRepository.existsByEmail(REPLICA_ONLY_EMAIL)));
+    }
+
+    private double fallbackReads() {
+        return meterRegistry.get("db.routing.connections")
+                .tag("target", "primary")
+                .tag("reason", "no-healthy-replica")
+                .functionCounter()
+                .count();
+    }
+
+    private void awaitHealthyReplicas(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + HEALTH_CHECK_WAIT.toNanos();
+        while (meterRegistry.get("db.replicas.healthy").gauge().value() != expected) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Expected " + expected + " healthy replicas within " + HEALTH_CHECK_WAIT);
+            }
+            Thread.sleep(50);
+        }
+    }
+
+    // Only the columns the startup search index rebuild and these tests read
+    private static void createReplicaSchema() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("create table if not exists users (id bigint primary key, email varchar(255) not null, "
+                    + "first_name varchar(255), last_name varchar(255), role varchar(255), created_at timestamp)");
+            statement.execute("merge into users (id, email, first_name, last_name, role, created_at) key (id) "
+                    + "values (1000000, '" + REPLICA_ONLY_EMAIL + "', 'Replica', 'Only', 'ROLE_USER', current_timestamp)");
+        }
+    }
+
+    private static boolean existsIn(String url, String email) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             PreparedStatement statement = connection.prepareStatement("select count(*) from users where email = ?")) {
+            statement.setString(1, email);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return resultSet.getLong(1) > 0;
+            }
+        }
+    }
+
+    private static String uniqueEmail(String prefix) {
+        return prefix + "-" + UUID.randomUUID() + "@example.com";
+    }
+
+    private static User newUser(String email) {
+        User user = new User();
+        user.setEmail(email);
+        user.setPassword("{bcrypt}not-a-real-hash");
+        user.setFirstName("Test");
+        user.setLastName("User");
+        user.setRole(Role.ROLE_USER);
+        user.setCreatedAt(LocalDateTime.now());
+        return user;
+    }
+}
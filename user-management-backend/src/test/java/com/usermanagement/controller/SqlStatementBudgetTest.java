@@ -0,0 +1,152 @@
+package com.usermanagement.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.usermanagement.entity.Role;
+import com.usermanagement.entity.User;
+import com.usermanagement.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.usermanagement.support.SqlStatementBudget.maxStatements;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Pins the number of SQL statements the hot endpoints run, so an N+1 load or a lost cache shows
+ * up as a failing test. Listings are checked against more users than fit on one page. Every
+ * authenticated request includes the JWT filter's token version lookup.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SqlStatementBudgetTest {
+
+    private static final String PASSWORD = "password123";
+    private static final String USER_EMAIL = "budget-user@example.com";
+    private static final String ADMIN_EMAIL = "budget-admin@example.com";
+    private static final int USERS = 30;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+        String hash = passwordEncoder.encode(PASSWORD);
+        List<User> users = new ArrayList<>(USERS);
+        users.add(newUser(USER_EMAIL, hash, Role.ROLE_USER));
+        users.add(newUser(ADMIN_EMAIL, hash, Role.ROLE_ADMIN));
+        for (int i = users.size(); i < USERS; i++) {
+            users.add(newUser("budget-" + i + "@example.com", hash, Role.ROLE_USER));
+        }
+        userRepository.saveAll(users);
+    }
+
+    @Test
+    void login() throws Exception {
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("email", USER_EMAIL, "password", PASSWORD))))
+                .andExpect(status().isOk())
+                .andExpect(maxStatements(1));
+    }
+
+    @Test
+    void getProfile() throws Exception {
+        String token = login(USER_EMAIL);
+
+        mockMvc.perform(get("/api/users/profile").header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value(USER_EMAIL))
+                .andExpect(maxStatements(1));
+    }
+
+    @Test
+    void updateProfile() throws Exception {
+        String token = login(USER_EMAIL);
+        Map<String, String> update = Map.of("firstName", "Renamed", "lastName", "User", "email", USER_EMAIL);
+
+        mockMvc.perform(put("/api/users/profile")
+                        .header(HttpHeaders.AUTHORIZATION, token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(update)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.firstName").value("Renamed"))
+                .andExpect(maxStatements(3));
+    }
+
+    @Test
+    void adminListing() throws Exception {
+        String token = login(ADMIN_EMAIL);
+
+        mockMvc.perform(get("/api/admin/users").param("size", "20").header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(20))
+                .andExpect(maxStatements(3));
+    }
+
+    @Test
+    void adminScroll() throws Exception {
+        String token = login(ADMIN_EMAIL);
+
+        MvcResult first = mockMvc.perform(get("/api/admin/users/scroll").param("size", "20")
+                        .header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(20))
+                .andExpect(maxStatements(2))
+                .andReturn();
+        String cursor = objectMapper.readTree(first.getResponse().getContentAsString()).path("nextCursor").asText();
+
+        mockMvc.perform(get("/api/admin/users/scroll").param("size", "20").param("cursor", cursor)
+                        .header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(USERS - 20))
+                .andExpect(maxStatements(2));
+    }
+
+    private String login(String email) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("email", email, "password", PASSWORD))))
+                .andExpect(status().isOk())
+                .andReturn();
+        JsonNode body = objectMapper.readTree(result.getResponse().getContentAsString());
+        return "Bearer " + body.path("token").asText();
+    }
+
+    private static User newUser(String email, String hash, Role role) {
+        User user = new User();
+        user.setEmail(email);
+        user.setPassword(hash);
+        user.setFirstName("Budget");
+        user.setLastName("User");
+        user.setRole(role);
+        return user;
+    }
+}
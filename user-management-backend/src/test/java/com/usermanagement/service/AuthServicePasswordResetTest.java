@@ -0,0 +1,97 @@
+package com.usermanagement.service;
+
+import com.usermanagement.dto.ForgotPasswordRequest;
+import com.usermanagement.dto.ResetPasswordRequest;
+import com.usermanagement.entity.Role;
+import com.usermanagement.entity.User;
+import com.usermanagement.exception.ResourceNotFoundException;
+import com.usermanagement.repository.PasswordResetTokenRepository;
+import com.usermanagement.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs both reset token formats through {@link AuthService#resetPassword}, which accepts either
+ * one whatever the configured mode.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class AuthServicePasswordResetTest {
+
+    private static final String EMAIL = "reset-user@example.com";
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private SignedResetTokenService signedResetTokenService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordResetTokenRepository passwordResetTokenRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        passwordResetTokenRepository.deleteAll();
+        userRepository.deleteAll();
+        user = new User();
+        user.setEmail(EMAIL);
+        user.setPassword(passwordEncoder.encode("password123"));
+        user.setFirstName("Reset");
+        user.setLastName("User");
+        user.setRole(Role.ROLE_USER);
+        user = userRepository.save(user);
+    }
+
+    @Test
+    void storedTokenResetsPasswordOnce() {
+        ForgotPasswordRequest forgot = new ForgotPasswordRequest();
+        forgot.setEmail(EMAIL);
+        authService.forgotPassword(forgot);
+        String token = passwordResetTokenRepository.findByUserId(user.getId()).orElseThrow().getToken();
+
+        authService.resetPassword(resetRequest(token, "newPassword1"));
+
+        assertThat(passwordEncoder.matches("newPassword1", currentHash())).isTrue();
+        assertThat(passwordResetTokenRepository.findByUserId(user.getId())).isEmpty();
+        assertThatThrownBy(() -> authService.resetPassword(resetRequest(token, "newPassword2")))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void signedTokenResetsPasswordOnce() {
+        String token = signedResetTokenService.issue(user);
+
+        authService.resetPassword(resetRequest(token, "newPassword1"));
+
+        assertThat(passwordEncoder.matches("newPassword1", currentHash())).isTrue();
+        assertThatThrownBy(() -> authService.resetPassword(resetRequest(token, "newPassword2")))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThat(passwordEncoder.matches("newPassword1", currentHash())).isTrue();
+    }
+
+    private String currentHash() {
+        return userRepository.findByIdBypassingCache(user.getId()).orElseThrow().getPassword();
+    }
+
+    private static ResetPasswordRequest resetRequest(String token, String newPassword) {
+        ResetPasswordRequest request = new ResetPasswordRequest();
+        request.setToken(token);
+        request.setNewPassword(newPassword);
+        return request;
+    }
+}
@@ -0,0 +1,187 @@
+package com.usermanagement.service;
+
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.usermanagement.entity.EmailOutbox;
+import com.usermanagement.entity.EmailType;
+import com.usermanagement.entity.OutboxStatus;
+import com.usermanagement.repository.EmailOutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.mail.MailSendException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.mail.internet.MimeMessage;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.doThrow;
+
+@SpringBootTest
+@ActiveProfiles({"test", "mailtest"})
+class EmailOutboxDispatcherTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP)
+            .withConfiguration(GreenMailConfiguration.aConfig().withDisabledAuthentication());
+
+    @Autowired
+    private EmailOutboxService emailOutboxService;
+
+    @Autowired
+    private EmailOutboxDispatcher emailOutboxDispatcher;
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @SpyBean
+    private EmailService emailService;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        emailOutboxRepository.deleteAll();
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    void enqueueRequiresTheCallersTransaction() {
+        assertThatThrownBy(() -> emailOutboxService.enqueue(EmailType.WELCOME, "alice@example.com",
+                Map.of("name", "Alice"), "welcome:no-transaction"))
+                .isInstanceOf(IllegalTransactionStateException.class);
+
+        assertThat(emailOutboxRepository.count()).isZero();
+    }
+
+    @Test
+    void rolledBackTransactionLeavesNoEmail() {
+        transactionTemplate.executeWithoutResult(status -> {
+            emailOutboxService.enqueue(EmailType.WELCOME, "alice@example.com",
+                    Map.of("name", "Alice"), "welcome:rolled-back");
+            status.setRollbackOnly();
+        });
+
+        emailOutboxDispatcher.dispatch();
+
+        assertThat(emailOutboxRepository.count()).isZero();
+        assertThat(greenMail.getReceivedMessages()).isEmpty();
+    }
+
+    @Test
+    void committedEmailIsDeliveredAndMarkedSent() throws Exception {
+        enqueue(EmailType.WELCOME, "alice@example.com", Map.of("name", "Alice"), "welcome:1");
+
+        emailOutboxDispatcher.dispatch();
+
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertThat(received).hasSize(1);
+        assertThat(received[0].getAllRecipients()[0].toString()).isEqualTo("alice@example.com");
+        assertThat(received[0].getSubject()).isNotBlank();
+
+        EmailOutbox email = single();
+        assertThat(email.getStatus()).isEqualTo(OutboxStatus.SENT);
+        assertThat(email.getAttempts()).isEqualTo(1);
+        assertThat(email.getSentAt()).isNotNull();
+        assertThat(email.getLockedUntil()).isNull();
+    }
+
+    @Test
+    void duplicateDedupKeyIsEnqueuedAndSentOnce() {
+        enqueue(EmailType.PASSWORD_RESET, "bob@example.com", Map.of("token", "t-1"), "password-reset:t-1");
+        enqueue(EmailType.PASSWORD_RESET, "bob@example.com", Map.of("token", "t-1"), "password-reset:t-1");
+
+        emailOutboxDispatcher.dispatch();
+        emailOutboxDispatcher.dispatch();
+
+        assertThat(emailOutboxRepository.count()).isEqualTo(1);
+        assertThat(greenMail.getReceivedMessages()).hasSize(1);
+    }
+
+    @Test
+    void failedSendIsRetriedAfterBackoff() {
+        doThrow(new MailSendException("SMTP server unavailable"))
+                .doCallRealMethod()
+                .when(emailService).send(any(EmailType.class), anyString(), anyMap());
+        enqueue(EmailType.WELCOME, "carol@example.com", Map.of("name", "Carol"), "welcome:3");
+
+        LocalDateTime beforeFailure = LocalDateTime.now();
+        emailOutboxDispatcher.dispatch();
+
+        EmailOutbox failed = single();
+        assertThat(failed.getStatus()).isEqualTo(OutboxStatus.PENDING);
+        assertThat(failed.getAttempts()).isEqualTo(1);
+        assertThat(failed.getLastError()).contains("SMTP server unavailable");
+        // initial-backoff is 1s in the mailtest profile
+        assertThat(failed.getNextAttemptAt()).isAfterOrEqualTo(beforeFailure.plusSeconds(1));
+        assertThat(greenMail.getReceivedMessages()).isEmpty();
+
+        // Not due yet, so the next poll leaves it alone
+        emailOutboxDispatcher.dispatch();
+        assertThat(single().getAttempts()).isEqualTo(1);
+
+        makeDue(failed);
+        emailOutboxDispatcher.dispatch();
+
+        EmailOutbox sent = single();
+        assertThat(sent.getStatus()).isEqualTo(OutboxStatus.SENT);
+        assertThat(sent.getAttempts()).isEqualTo(2);
+        assertThat(sent.getLastError()).isNull();
+        assertThat(greenMail.getReceivedMessages()).hasSize(1);
+    }
+
+    @Test
+    void emailIsMarkedFailedAfterMaxAttempts() {
+        doThrow(new MailSendException("SMTP server unavailable"))
+                .when(emailService).send(any(EmailType.class), anyString(), anyMap());
+        enqueue(EmailType.WELCOME, "dave@example.com", Map.of("name", "Dave"), "welcome:4");
+
+        // max-attempts is 3 in the mailtest profile
+        for (int attempt = 1; attempt <= 3; attempt++) {
+            emailOutboxDispatcher.dispatch();
+            makeDue(single());
+        }
+
+        EmailOutbox email = single();
+        assertThat(email.getStatus()).isEqualTo(OutboxStatus.FAILED);
+        assertThat(email.getAttempts()).isEqualTo(3);
+
+        doCallRealMethod().when(emailService).send(any(EmailType.class), anyString(), anyMap());
+        emailOutboxDispatcher.dispatch();
+        assertThat(greenMail.getReceivedMessages()).isEmpty();
+    }
+
+    private void enqueue(EmailType type, String recipient, Map<String, String> variables, String dedupKey) {
+        transactionTemplate.executeWithoutResult(status ->
+                emailOutboxService.enqueue(type, recipient, variables, dedupKey));
+    }
+
+    private EmailOutbox single() {
+        List<EmailOutbox> emails = emailOutboxRepository.findAll();
+        assertThat(emails).hasSize(1);
+        return emails.get(0);
+    }
+
+    private void makeDue(EmailOutbox email) {
+        email.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        emailOutboxRepository.save(email);
+    }
+}
@@ -0,0 +1,112 @@
+package com.usermanagement.service;
+
+import com.usermanagement.entity.User;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SignedResetTokenServiceTest {
+
+    private static final String SECRET = "test-secret";
+
+    private final SignedResetTokenService service = new SignedResetTokenService(SECRET, Duration.ofHours(24));
+
+    @Test
+    void issuedTokenVerifiesForItsUser() {
+        User user = user(42L, "$2a$04$original-hash");
+
+        SignedResetTokenService.ParsedToken token = service.parse(service.issue(user)).orElseThrow();
+
+        assertThat(SignedResetTokenService.isSignedToken(service.issue(user))).isTrue();
+        assertThat(token.getUserId()).isEqualTo(42L);
+        assertThat(token.isExpired()).isFalse();
+        assertThat(service.verify(token, user)).isTrue();
+    }
+
+    @Test
+    void tamperedPayloadIsRejected() {
+        User user = user(42L, "$2a$04$original-hash");
+        User other = user(43L, "$2a$04$original-hash");
+        String[] parts = service.issue(user).split("\\.");
+
+        // Point the token at another user and push its expiry out, keeping the original MAC
+        String forged = encode(payload(43L, Instant.now().plus(Duration.ofDays(365)))) + "." + parts[1];
+        SignedResetTokenService.ParsedToken token = service.parse(forged).orElseThrow();
+
+        assertThat(token.getUserId()).isEqualTo(43L);
+        assertThat(service.verify(token, other)).isFalse();
+    }
+
+    @Test
+    void tamperedSignatureIsRejected() {
+        User user = user(42L, "$2a$04$original-hash");
+        String[] parts = service.issue(user).split("\\.");
+        byte[] mac = Base64.getUrlDecoder().decode(parts[1]);
+        mac[0] ^= 1;
+
+        SignedResetTokenService.ParsedToken token = service.parse(parts[0] + "." + encode(mac)).orElseThrow();
+
+        assertThat(service.verify(token, user)).isFalse();
+    }
+
+    @Test
+    void tokenSignedWithAnotherSecretIsRejected() {
+        User user = user(42L, "$2a$04$original-hash");
+        SignedResetTokenService otherKey = new SignedResetTokenService("other-secret", Duration.ofHours(24));
+
+        SignedResetTokenService.ParsedToken token = service.parse(otherKey.issue(user)).orElseThrow();
+
+        assertThat(service.verify(token, user)).isFalse();
+    }
+
+    @Test
+    void expiredTokenIsReportedExpired() {
+        SignedResetTokenService expiring = new SignedResetTokenService(SECRET, Duration.ofSeconds(-1));
+        User user = user(42L, "$2a$04$original-hash");
+
+        SignedResetTokenService.ParsedToken token = expiring.parse(expiring.issue(user)).orElseThrow();
+
+        assertThat(token.isExpired()).isTrue();
+    }
+
+    @Test
+    void tokenStopsVerifyingOnceThePasswordHashChanges() {
+        User user = user(42L, "$2a$04$original-hash");
+        SignedResetTokenService.ParsedToken token = service.parse(service.issue(user)).orElseThrow();
+
+        user.setPassword("$2a$04$changed-hash");
+
+        assertThat(service.verify(token, user)).isFalse();
+    }
+
+    @Test
+    void malformedTokensDoNotParse() {
+        assertThat(service.parse("no-separator")).isEmpty();
+        assertThat(service.parse(".mac")).isEmpty();
+        assertThat(service.parse("not base64!.mac")).isEmpty();
+        assertThat(service.parse(encode(new byte[3]) + ".mac")).isEmpty();
+    }
+
+    private static User user(Long id, String passwordHash) {
+        User user = new User();
+        user.setId(id);
+        user.setPassword(passwordHash);
+        return user;
+    }
+
+    private static byte[] payload(long userId, Instant expiresAt) {
+        return ByteBuffer.allocate(2 * Long.BYTES)
+                .putLong(userId)
+                .putLong(expiresAt.getEpochSecond())
+                .array();
+    }
+
+    private static String encode(byte[] bytes) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
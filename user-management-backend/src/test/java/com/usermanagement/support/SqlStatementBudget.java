@@ -0,0 +1,59 @@
+package com.usermanagement.support;
+
+import com.usermanagement.config.SqlRequestStats;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * Query-count assertions for tests. {@link #maxStatements} checks the statistics the SQL
+ * accounting filter left on a MockMvc request, so the filter must be part of the MockMvc setup
+ * (it is with {@code @AutoConfigureMockMvc}); {@link #assertMaxStatements} measures a block of
+ * code directly.
+ *
+ * <pre>
+ * mockMvc.perform(get("/api/users/profile").header(AUTHORIZATION, token))
+ *         .andExpect(status().isOk())
+ *         .andExpect(SqlStatementBudget.maxStatements(2));
+ * </pre>
+ */
+public final class SqlStatementBudget {
+
+    private SqlStatementBudget() {
+    }
+
+    public static ResultMatcher maxStatements(int max) {
+        return result -> {
+            SqlRequestStats stats = (SqlRequestStats) result.getRequest().getAttribute(SqlRequestStats.ATTRIBUTE);
+            if (stats == null) {
+                throw new AssertionError("No SQL statistics on the request; is app.sql-accounting.enabled set?");
+            }
+            check(stats, max, result.getRequest().getMethod() + " " + result.getRequest().getRequestURI());
+        };
+    }
+
+    public static <T> T assertMaxStatements(int max, Callable<T> work) throws Exception {
+        SqlRequestStats stats = SqlRequestStats.begin();
+        try {
+            T value = work.call();
+            check(stats, max, "block");
+            return value;
+        } finally {
+            SqlRequestStats.end();
+        }
+    }
+
+    private static void check(SqlRequestStats stats, int max, String what) {
+        if (stats.getStatements() <= max) {
+            return;
+        }
+        StringBuilder message = new StringBuilder()
+                .append(what).append(" ran ").append(stats.getStatements())
+                .append(" SQL statements, expected at most ").append(max).append(':');
+        for (Map.Entry<String, Integer> execution : stats.getExecutions().entrySet()) {
+            message.append("\n  ").append(execution.getValue()).append(" x ").append(execution.getKey());
+        }
+        throw new AssertionError(message.toString());
+    }
+}